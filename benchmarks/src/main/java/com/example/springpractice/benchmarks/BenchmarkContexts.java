@@ -0,0 +1,32 @@
+package com.example.springpractice.benchmarks;
+
+import com.example.springpractice.SpringPracticeApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Запуск контекста приложения для бенчмарков: без веб-сервера, без вывода SQL и лишних логов,
+ * на той же in-memory H2, что и в тестах.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    static ConfigurableApplicationContext start(String... profiles) {
+        return new SpringApplicationBuilder(SpringPracticeApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(profiles)
+                .properties(
+                        "spring.jpa.show-sql=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.transaction=WARN",
+                        "logging.level.org.springframework.orm.jpa=WARN")
+                .run();
+    }
+}
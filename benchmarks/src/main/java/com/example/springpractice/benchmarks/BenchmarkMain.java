@@ -0,0 +1,26 @@
+package com.example.springpractice.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Точка входа бенчмарков. Принимает стандартные аргументы JMH и всегда подключает GC профайлер,
+ * чтобы рядом с пропускной способностью печаталась скорость аллокаций (gc.alloc.rate.norm - байт на операцию).
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
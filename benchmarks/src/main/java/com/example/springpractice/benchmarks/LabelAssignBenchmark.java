@@ -0,0 +1,73 @@
+package com.example.springpractice.benchmarks;
+
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.repository.MovieRepository;
+import com.example.springpractice.task1.service.LabelService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость присвоения лейбла внутри уже открытой транзакции (как из обработчика события создания фильма):
+ * с присоединением к ней (REQUIRED) и в новой транзакции (REQUIRES_NEW) - приостановка внешней транзакции,
+ * вторая сессия и второе соединение из пула. Фильм читается по идентификатору в каждой операции: отсоединенная
+ * сущность после первого присвоения несла бы устаревшую версию.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LabelAssignBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private LabelService labelService;
+    private TransactionTemplate outerTemplate;
+    private TransactionTemplate requiresNewTemplate;
+    private Long movieId;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start();
+        labelService = context.getBean(LabelService.class);
+        final PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        outerTemplate = new TransactionTemplate(transactionManager);
+        requiresNewTemplate = new TransactionTemplate(transactionManager);
+        requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        movieId = context.getBean(MovieRepository.class).save(new Movie("Movie")).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void assignLabelRequired() {
+        outerTemplate.executeWithoutResult(outer -> labelService.assignLabel(movieId));
+    }
+
+    @Benchmark
+    public void assignLabelRequiresNew() {
+        outerTemplate.executeWithoutResult(outer ->
+                requiresNewTemplate.executeWithoutResult(inner -> labelService.assignLabel(movieId)));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.springpractice.benchmarks;
+
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.listener.MovieCreatedEventProcessor;
+import com.example.springpractice.task1.service.MovieService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.context.support.AbstractApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость {@link MovieService#createMovie(String)} в зависимости от фазы, в которой обрабатывается событие создания.
+ * В контексте оставляется только один обработчик из {@link MovieCreatedEventProcessor}, остальные снимаются
+ * с рассыльщика событий, NONE - создание фильма без обработчиков.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieCreateBenchmark {
+
+    /**
+     * Вариант обработчика - метод {@link MovieCreatedEventProcessor}, который остается подписанным на событие.
+     */
+    public enum ListenerPhase {
+        NONE(null),
+        SAME_TXN("processMovieCreatedEventSameTxn"),
+        BEFORE_COMMIT("processMovieCreatedEventTxnBeforeCommit"),
+        AFTER_COMMIT("processMovieCreatedEventTxnAfterCommit"),
+        AFTER_ROLLBACK("processMovieCreatedEventTxnAfterRollback"),
+        AFTER_COMPLETION("processMovieCreatedEventTxnAfterCompletion");
+
+        private final String methodName;
+
+        ListenerPhase(String methodName) {
+            this.methodName = methodName;
+        }
+    }
+
+    @Param
+    public ListenerPhase phase;
+
+    private ConfigurableApplicationContext context;
+    private MovieService movieService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start("task1");
+        movieService = context.getBean(MovieService.class);
+        final String processor = MovieCreatedEventProcessor.class.getName();
+        context.getBean(AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME, ApplicationEventMulticaster.class)
+                .removeApplicationListeners(listener -> listener instanceof SmartApplicationListener smartListener
+                        && smartListener.getListenerId().startsWith(processor)
+                        && (phase.methodName == null || !smartListener.getListenerId().contains("." + phase.methodName + "(")));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Movie createMovie() {
+        return movieService.createMovie("Movie");
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.springpractice.benchmarks;
+
+import com.example.springpractice.task1.dto.MovieExport;
+import com.example.springpractice.task1.dto.MovieSearchHit;
+import com.example.springpractice.task1.search.MovieSearchIndex;
+import com.example.springpractice.task1.search.MovieSearchMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время поиска по индексу большого синтетического каталога - без Spring и БД, только {@link MovieSearchIndex}.
+ * Названия и имена авторов составлены из слов словаря, слова - из слогов, поэтому короткое начало слова
+ * (query = ka) подходит под большую долю каталога, а длинное (kalo) и запрос из двух слов - под малую.
+ * Цель - время поиска по мере ввода меньше 10 мс.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieSearchBenchmark {
+
+    private static final String[] SYLLABLES = {
+            "ka", "lo", "mi", "ra", "ten", "dor", "vel", "sun", "bra", "ix", "mor", "le", "qua", "zen", "tri", "an"};
+    private static final int VOCABULARY_SIZE = 50_000;
+    private static final int LIMIT = 20;
+
+    @Param({"100000", "1000000"})
+    private int movies;
+
+    @Param({"ka", "kalo", "kalo mi"})
+    private String query;
+
+    private Path directory;
+    private MovieSearchIndex index;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("movie-search-benchmark");
+        index = MovieSearchIndex.open(directory);
+        final Random random = new Random(42);
+        final List<String> vocabulary = new ArrayList<>(VOCABULARY_SIZE);
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            vocabulary.add(word(random));
+        }
+        index.rebuild(sink -> {
+            for (long id = 1; id <= movies; id++) {
+                sink.accept(new MovieExport(id, words(random, vocabulary, 1 + random.nextInt(4)), null, null,
+                        List.of(words(random, vocabulary, 2))));
+            }
+        }, ids -> List.of());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        index.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public List<MovieSearchHit> searchByPrefix() {
+        return index.search(query, null, MovieSearchMode.PREFIX, LIMIT);
+    }
+
+    @Benchmark
+    public List<MovieSearchHit> searchWithTypos() {
+        return index.search(query, null, MovieSearchMode.FUZZY, LIMIT);
+    }
+
+    @Benchmark
+    public List<MovieSearchHit> searchByAuthorPrefix() {
+        return index.search(null, query, MovieSearchMode.PREFIX, LIMIT);
+    }
+
+    private static String word(Random random) {
+        final StringBuilder word = new StringBuilder();
+        for (int i = 2 + random.nextInt(3); i > 0; i--) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return word.toString();
+    }
+
+    private static String words(Random random, List<String> vocabulary, int count) {
+        final StringBuilder words = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                words.append(' ');
+            }
+            final String word = vocabulary.get(random.nextInt(vocabulary.size()));
+            words.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+        }
+        return words.toString();
+    }
+}
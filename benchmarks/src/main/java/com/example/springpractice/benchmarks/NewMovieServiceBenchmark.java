@@ -0,0 +1,70 @@
+package com.example.springpractice.benchmarks;
+
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task2.service.NewMovieService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость {@link NewMovieService#createMovieAndAssignLabelSeparatelyWithEx(String, String)}:
+ * внешняя транзакция и вложенная REQUIRES_NEW на сохранение фильма. При совпадении названия и лейбла
+ * внешняя транзакция откатывается исключением - вариант ROLLBACK.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NewMovieServiceBenchmark {
+
+    private static final String MOVIE_NAME = "Movie";
+
+    public enum Outcome {
+        COMMIT, ROLLBACK
+    }
+
+    @Param
+    public Outcome outcome;
+
+    private ConfigurableApplicationContext context;
+    private NewMovieService newMovieService;
+    private String label;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start("task2");
+        newMovieService = context.getBean(NewMovieService.class);
+        label = (outcome == Outcome.ROLLBACK ? MOVIE_NAME : "movie label");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Movie createMovieAndAssignLabelSeparately() throws Exception {
+        try {
+            return newMovieService.createMovieAndAssignLabelSeparatelyWithEx(MOVIE_NAME, label);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
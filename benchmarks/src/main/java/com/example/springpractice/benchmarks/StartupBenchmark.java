@@ -0,0 +1,139 @@
+package com.example.springpractice.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время холодного старта: от запуска JVM с приложением до первого успешного ответа GET /movie.
+ * Каждый замер запускает отдельный процесс, поэтому в результат входят загрузка классов, создание контекста,
+ * инициализация JPA и первый запрос - то, что ограничивает скорость ввода нового узла под нагрузку.
+ * <p>
+ * EXEC - обычный исполняемый jar, FAST_START - сборка ./mvnw -Pfast-start package: AOT, ленивая инициализация
+ * и архив CDS. Пути задаются относительно корня репозитория параметром appDir.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+    private static final String AUTHORIZATION = "Basic "
+            + Base64.getEncoder().encodeToString("spring:secret".getBytes(StandardCharsets.UTF_8));
+
+    public enum StartMode {
+        EXEC, FAST_START
+    }
+
+    @Param
+    public StartMode mode;
+
+    /**
+     * Каталог target основного модуля.
+     */
+    @Param("target")
+    public String appDir;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private Process process;
+    private URI firstRequest;
+
+    @Setup(Level.Iteration)
+    public void prepare() throws IOException {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        firstRequest = URI.create("http://localhost:" + port + "/movie?size=1");
+        process = new ProcessBuilder(command(port))
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+
+    @Benchmark
+    public int timeToFirstRequest() throws IOException, InterruptedException {
+        final HttpRequest request = HttpRequest.newBuilder(firstRequest)
+                .header("Authorization", AUTHORIZATION)
+                .build();
+        final long deadline = System.nanoTime() + START_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Приложение завершилось с кодом " + process.exitValue());
+            }
+            try {
+                final HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Первый запрос вернул " + response.statusCode());
+                }
+                return response.statusCode();
+            } catch (ConnectException e) {
+                Thread.sleep(5);
+            }
+        }
+        throw new IllegalStateException("Приложение не ответило за " + START_TIMEOUT);
+    }
+
+    private List<String> command(int port) {
+        final Path dir = Path.of(appDir);
+        final List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (mode == StartMode.FAST_START) {
+            final Path archive = dir.resolve("spring-practice.jsa");
+            if (!Files.exists(archive)) {
+                throw new IllegalStateException("Нет архива CDS " + archive + ", нужна сборка ./mvnw -Pfast-start package");
+            }
+            command.add("-XX:SharedArchiveFile=" + archive);
+            command.add("-Dspring.aot.enabled=true");
+            command.add("-Dspring.profiles.active=fast-start");
+            command.add("-jar");
+            command.add(dir.resolve("spring-practice-0.0.1-SNAPSHOT.jar").toString());
+        } else {
+            command.add("-jar");
+            command.add(dir.resolve("spring-practice-0.0.1-SNAPSHOT-exec.jar").toString());
+        }
+        command.add("--server.port=" + port);
+        command.add("--spring.jpa.show-sql=false");
+        return command;
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.springpractice;
 
+import com.example.springpractice.task1.conf.MovieRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaAuditing
+@ConfigurationPropertiesScan
+@EnableScheduling
+@ImportRuntimeHints(MovieRuntimeHints.class)
 public class SpringPracticeApplication {
 
     public static void main(String[] args) {
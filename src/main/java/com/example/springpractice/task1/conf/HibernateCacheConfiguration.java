@@ -0,0 +1,61 @@
+package com.example.springpractice.task1.conf;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Конфигурация кэша второго уровня Hibernate.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Configuration(proxyBeanMethods = false)
+public class HibernateCacheConfiguration {
+
+    /**
+     * Hibernate закрывает CacheManager при остановке фабрики сессий, а провайдер JCache отдает один CacheManager
+     * на URI. Поэтому каждый контекст получает собственный CacheManager - остановка одного контекста
+     * (например, в тестах) не закрывает кэш другого. Настройки регионов читаются из application.conf.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer() {
+        return properties -> {
+            final CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+            final URI uri = URI.create("urn:spring-practice:hibernate-cache:" + UUID.randomUUID());
+            properties.put(ConfigSettings.CACHE_MANAGER, provider.getCacheManager(uri, provider.getDefaultClassLoader()));
+        };
+    }
+
+    /**
+     * Метрики попаданий, промахов и вытеснений по каждому региону кэша.
+     */
+    @Bean
+    public MeterBinder hibernateCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            final RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getCache().getRegionFactory();
+            if (regionFactory instanceof JCacheRegionFactory jCacheRegionFactory) {
+                final CacheManager cacheManager = jCacheRegionFactory.getCacheManager();
+                for (String cacheName : cacheManager.getCacheNames()) {
+                    JCacheMetrics.monitor(registry, cacheManager.getCache(cacheName), Tags.of("cache.kind", "hibernate"));
+                }
+            }
+        };
+    }
+}
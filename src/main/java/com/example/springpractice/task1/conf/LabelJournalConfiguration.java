@@ -0,0 +1,26 @@
+package com.example.springpractice.task1.conf;
+
+import com.example.springpractice.task1.journal.LabelChangeJournal;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Журнал смены лейблов в файлах, отображенных в память, - вне транзакций JPA.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "movie.label.journal", name = "enabled", havingValue = "true")
+public class LabelJournalConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public LabelChangeJournal labelChangeJournal(LabelJournalProperties properties) throws IOException {
+        return LabelChangeJournal.open(properties.getDirectory(),
+                Math.toIntExact(properties.getSegmentSize().toBytes()),
+                Math.toIntExact(properties.getIndexInterval().toBytes()));
+    }
+}
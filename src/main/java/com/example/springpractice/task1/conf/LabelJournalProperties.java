@@ -0,0 +1,38 @@
+package com.example.springpractice.task1.conf;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Настройки журнала смены лейблов.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Data
+@ConfigurationProperties(prefix = "movie.label.journal")
+public class LabelJournalProperties {
+
+    /**
+     * Включает журнал. По умолчанию история лейблов не хранится.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Каталог с сегментами журнала.
+     */
+    private Path directory = Path.of("label-journal");
+
+    /**
+     * Размер файла сегмента. Файл создается сразу полного размера и отображается в память целиком.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Байт записей на один блок разреженного индекса. Меньше - быстрее поиск по фильму, но больше памяти на индекс.
+     */
+    private DataSize indexInterval = DataSize.ofKilobytes(4);
+}
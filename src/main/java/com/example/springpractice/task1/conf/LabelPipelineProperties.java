@@ -0,0 +1,42 @@
+package com.example.springpractice.task1.conf;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки асинхронного конвейера присвоения лейблов.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Data
+@ConfigurationProperties(prefix = "movie.label.pipeline")
+public class LabelPipelineProperties {
+
+    /**
+     * Включает конвейер. По умолчанию выключен - лейблы проставляются обработчиками из task1.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Максимальное количество фильмов, ожидающих присвоения лейбла.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Максимальное количество фильмов, обновляемых одним UPDATE.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Сколько ждать добора пачки после получения первого фильма.
+     */
+    private Duration linger = Duration.ofMillis(50);
+
+    /**
+     * Сколько ждать места в очереди, прежде чем присвоить лейбл синхронно в потоке публикации.
+     */
+    private Duration enqueueTimeout = Duration.ofMillis(10);
+}
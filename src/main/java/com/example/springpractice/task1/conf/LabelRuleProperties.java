@@ -0,0 +1,85 @@
+package com.example.springpractice.task1.conf;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Настройки правил присвоения лейблов.
+ * <pre>
+ * movie.label.rules.rules[0].name=sequels
+ * movie.label.rules.rules[0].type=name-pattern
+ * movie.label.rules.rules[0].match=.* 2
+ * movie.label.rules.rules[0].label=sequel
+ * </pre>
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Data
+@ConfigurationProperties(prefix = "movie.label.rules")
+public class LabelRuleProperties {
+
+    /**
+     * Откуда берутся правила: из настроек или из таблицы label_rule.
+     */
+    private Source source = Source.PROPERTIES;
+
+    /**
+     * Лейбл фильма, к которому не подошло ни одно правило.
+     */
+    private String defaultLabel = "movie company label";
+
+    /**
+     * Лейблы, которые нельзя присваивать. Дополняются правилами типа FORBIDDEN.
+     */
+    private Set<String> forbidden = new LinkedHashSet<>(List.of("forbidden", "label"));
+
+    /**
+     * Правила из настроек.
+     */
+    private List<Rule> rules = new ArrayList<>();
+
+    /**
+     * Интервал перечитывания правил. Если не задан, правила читаются только при запуске и по вызову reload().
+     */
+    private Duration reloadInterval;
+
+    public enum Source {
+        PROPERTIES, DATABASE
+    }
+
+    public enum RuleType {
+        /**
+         * Точное совпадение названия фильма.
+         */
+        NAME,
+        /**
+         * Название фильма целиком соответствует регулярному выражению.
+         */
+        NAME_PATTERN,
+        /**
+         * Среди авторов фильма есть автор с таким именем.
+         */
+        AUTHOR,
+        /**
+         * Запрещенный лейбл, значение - в match.
+         */
+        FORBIDDEN
+    }
+
+    /**
+     * Правило присвоения лейбла.
+     *
+     * @param name  имя правила для счетчика срабатываний.
+     * @param match название, регулярное выражение или имя автора - в зависимости от типа.
+     * @param label присваиваемый лейбл.
+     */
+    public record Rule(String name, RuleType type, String match, String label) {
+    }
+}
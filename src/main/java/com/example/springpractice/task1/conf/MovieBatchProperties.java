@@ -0,0 +1,21 @@
+package com.example.springpractice.task1.conf;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки пакетного создания фильмов.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Data
+@ConfigurationProperties(prefix = "movie.batch")
+public class MovieBatchProperties {
+
+    /**
+     * Количество фильмов, после которого контекст персистентности сбрасывается в БД и очищается.
+     * Имеет смысл держать равным hibernate.jdbc.batch_size, чтобы каждый чанк уходил одним батчем.
+     */
+    private int chunkSize = 50;
+}
@@ -0,0 +1,45 @@
+package com.example.springpractice.task1.conf;
+
+import com.example.springpractice.task1.event.BoundedEventMulticaster;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+
+/**
+ * Конфигурация ограниченной асинхронной доставки событий по фильмам.
+ * Бин с именем {@link AbstractApplicationContext#APPLICATION_EVENT_MULTICASTER_BEAN_NAME} подменяет стандартный
+ * синхронный рассыльщик контекста.
+ * При включенных виртуальных потоках (spring.threads.virtual.enabled) обработчики выполняются на виртуальных потоках,
+ * размер очереди и число одновременно работающих обработчиков по-прежнему ограничены настройками.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "movie.events.dispatch", name = "enabled", havingValue = "true")
+public class MovieEventDispatchConfiguration {
+
+    @Bean(name = AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME)
+    public BoundedEventMulticaster applicationEventMulticaster(BeanFactory beanFactory,
+                                                               MovieEventDispatchProperties properties,
+                                                               ObjectProvider<MeterRegistry> meterRegistry,
+                                                               Environment environment) {
+        final Function<String, ThreadFactory> threadFactories = (Threading.VIRTUAL.isActive(environment)
+                ? prefix -> new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory()
+                : CustomizableThreadFactory::new);
+        return new BoundedEventMulticaster(beanFactory, properties,
+                () -> meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), threadFactories);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.springpractice.task1.conf;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Настройки асинхронной доставки событий по фильмам.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Data
+@ConfigurationProperties(prefix = "movie.events.dispatch")
+public class MovieEventDispatchProperties {
+
+    /**
+     * Включает ограниченную асинхронную доставку. По умолчанию все обработчики вызываются синхронно.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Настройки доставки по обработчикам. Ключ - Класс#метод обработчика, например
+     * MovieCreatedEventProcessor#processMovieCreatedEventSameTxn (класс - простое имя или с пакетом),
+     * или listenerId целиком. Не перечисленные обработчики вызываются синхронно.
+     */
+    private Map<String, ListenerDispatch> listeners = new LinkedHashMap<>();
+
+    @Data
+    public static class ListenerDispatch {
+
+        /**
+         * Количество потоков исполнителя обработчика.
+         */
+        private int threads = 1;
+
+        /**
+         * Размер очереди событий, ожидающих обработки.
+         */
+        private int queueCapacity = 1_000;
+
+        /**
+         * Поведение при заполненной очереди.
+         */
+        private OverloadPolicy overloadPolicy = OverloadPolicy.BLOCK;
+    }
+
+    public enum OverloadPolicy {
+        /**
+         * Публикующий поток ждет освобождения места в очереди.
+         */
+        BLOCK,
+        /**
+         * Самое старое событие в очереди отбрасывается.
+         */
+        DROP_OLDEST,
+        /**
+         * Обработчик вызывается синхронно в публикующем потоке.
+         */
+        CALLER_RUNS
+    }
+}
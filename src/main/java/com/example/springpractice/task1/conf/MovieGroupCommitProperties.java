@@ -0,0 +1,50 @@
+package com.example.springpractice.task1.conf;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки группового создания фильмов (group commit).
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Data
+@ConfigurationProperties(prefix = "movie.group-commit")
+public class MovieGroupCommitProperties {
+
+    /**
+     * Включает групповую фиксацию. По умолчанию каждый POST /movie создает фильм в своей транзакции.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Сколько ждать добора группы после получения первого запроса. Добавляется к времени ответа
+     * при низкой нагрузке, поэтому держится в пределах единиц миллисекунд.
+     */
+    private Duration window = Duration.ofMillis(5);
+
+    /**
+     * Максимальный размер группы. Имеет смысл держать равным hibernate.jdbc.batch_size,
+     * чтобы вставки группы уходили одним батчем.
+     */
+    private int maxBatchSize = 50;
+
+    /**
+     * Максимальное количество запросов, ожидающих фиксации.
+     */
+    private int queueCapacity = 1_000;
+
+    /**
+     * Сколько ждать места в очереди, прежде чем создать фильм в отдельной транзакции в потоке запроса.
+     */
+    private Duration enqueueTimeout = Duration.ofMillis(10);
+
+    /**
+     * Сколько вызывающий поток ждет фиксации своей группы. Запрос, не дождавшийся фиксации, в еще не начатую
+     * группу не попадет, но если его группа уже фиксируется, фильм может быть создан.
+     */
+    private Duration resultTimeout = Duration.ofSeconds(30);
+}
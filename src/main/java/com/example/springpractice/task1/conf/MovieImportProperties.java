@@ -0,0 +1,43 @@
+package com.example.springpractice.task1.conf;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Настройки импорта фильмов.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Data
+@ConfigurationProperties(prefix = "movie.import")
+public class MovieImportProperties {
+
+    /**
+     * Файл для импорта при запуске приложения (.ndjson, .jsonl или .csv). Если не задан, импорт из командной строки не запускается.
+     */
+    private Path file;
+
+    /**
+     * Идентификатор импорта из командной строки. По умолчанию - имя и размер файла,
+     * так что повторный запуск с тем же файлом продолжает прерванный импорт.
+     */
+    private String importId;
+
+    /**
+     * Фильмов в одной пачке - одна транзакция и одна отметка о загрузке.
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Пачек, загружаемых параллельно. Каждая занимает соединение из пула.
+     */
+    private int parallelism = 4;
+
+    /**
+     * Прогресс логируется каждые столько пачек.
+     */
+    private int progressInterval = 100;
+}
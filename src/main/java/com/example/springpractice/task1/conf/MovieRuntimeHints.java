@@ -0,0 +1,58 @@
+package com.example.springpractice.task1.conf;
+
+import com.example.springpractice.task1.domain.Author;
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.dto.MovieImportRecord;
+import com.example.springpractice.task1.dto.MovieImportResult;
+import com.example.springpractice.task1.dto.MovieSearchHit;
+import com.example.springpractice.task2.service.NewMovieService;
+import com.example.springpractice.task3.dto.MovieJobStatus;
+import com.example.springpractice.task3.dto.Response;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+/**
+ * Подсказки для сборки native image - то, что AOT обработка контекста не выводит сама.
+ * <ul>
+ *     <li>сущности {@link Movie} и {@link Author}: Hibernate читает и пишет поля и вызывает конструктор
+ *     без аргументов через отражение;</li>
+ *     <li>{@link AuditingEntityListener}: Hibernate создает слушатель и вызывает его методы обратного вызова
+ *     (@PrePersist, @PreUpdate) через отражение;</li>
+ *     <li>{@link NewMovieService}: методы вызываются через транзакционный прокси, в том числе через ленивую
+ *     ссылку на себя (@Lazy self). Классы прокси генерирует AOT, если сборка идет с профилем task2;</li>
+ *     <li>типы, которые Jackson пишет и читает сам, минуя сигнатуры контроллеров, - включая аксессоры
+ *     записи {@link Response};</li>
+ *     <li>провайдер JCache и application.conf с настройками регионов кэша второго уровня.</li>
+ * </ul>
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public class MovieRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final MemberCategory[] ENTITY_MEMBERS = {
+            MemberCategory.DECLARED_FIELDS,
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+            MemberCategory.INVOKE_DECLARED_METHODS
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.reflection()
+                .registerType(Movie.class, ENTITY_MEMBERS)
+                .registerType(Author.class, ENTITY_MEMBERS)
+                .registerType(AuditingEntityListener.class,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS)
+                .registerType(NewMovieService.class,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS)
+                .registerType(CaffeineCachingProvider.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                Response.class, MovieJobStatus.class, MovieImportRecord.class, MovieImportResult.class,
+                MovieSearchHit.class);
+        hints.resources().registerPattern("application.conf");
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.springpractice.task1.conf;
+
+import com.example.springpractice.task1.search.MovieSearchIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Индекс полнотекстового поиска фильмов в процессе приложения, рядом с ним, а не в БД.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "movie.search", name = "enabled", havingValue = "true")
+public class MovieSearchConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public MovieSearchIndex movieSearchIndex(MovieSearchProperties properties) throws IOException {
+        return MovieSearchIndex.open(properties.getDirectory());
+    }
+}
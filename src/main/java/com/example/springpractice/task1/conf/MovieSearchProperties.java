@@ -0,0 +1,64 @@
+package com.example.springpractice.task1.conf;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Настройки полнотекстового поиска по названиям фильмов и именам авторов.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Data
+@ConfigurationProperties(prefix = "movie.search")
+public class MovieSearchProperties {
+
+    /**
+     * Включает поиск. По умолчанию выключен - индекс не строится и не обновляется.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Каталог индекса.
+     */
+    private Path directory = Path.of("search-index");
+
+    /**
+     * Строить индекс из БД при запуске, если он пуст.
+     */
+    private boolean rebuildOnStartup = true;
+
+    /**
+     * Максимальное количество фильмов, ожидающих переиндексации.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Максимальное количество фильмов, переиндексируемых за один проход (одно чтение из БД и одно обновление поиска).
+     */
+    private int batchSize = 500;
+
+    /**
+     * Сколько ждать добора пачки после получения первого фильма - верхняя граница задержки видимости изменений в поиске.
+     */
+    private Duration linger = Duration.ofMillis(50);
+
+    /**
+     * Сколько ждать места в очереди, прежде чем переиндексировать фильм синхронно в потоке публикации.
+     */
+    private Duration enqueueTimeout = Duration.ofMillis(10);
+
+    /**
+     * Как часто фиксировать индекс на диске. Изменения видны в поиске и до фиксации, но после падения
+     * процесса теряются - их восстанавливает перестроение индекса.
+     */
+    private Duration commitInterval = Duration.ofMinutes(1);
+
+    /**
+     * Максимальный размер страницы результатов.
+     */
+    private int maxResults = 100;
+}
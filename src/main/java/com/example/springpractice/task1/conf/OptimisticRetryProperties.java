@@ -0,0 +1,32 @@
+package com.example.springpractice.task1.conf;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки повтора операций, завершившихся конфликтом оптимистической блокировки.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Data
+@ConfigurationProperties(prefix = "movie.optimistic-retry")
+public class OptimisticRetryProperties {
+
+    /**
+     * Максимальное количество попыток, включая первую.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * Верхняя граница паузы перед второй попыткой, дальше граница удваивается.
+     */
+    private Duration initialBackoff = Duration.ofMillis(5);
+
+    /**
+     * Предельная пауза между попытками.
+     */
+    private Duration maxBackoff = Duration.ofMillis(200);
+}
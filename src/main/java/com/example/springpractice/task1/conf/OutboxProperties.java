@@ -0,0 +1,37 @@
+package com.example.springpractice.task1.conf;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки транзакционного outbox для событий по фильмам.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Data
+@ConfigurationProperties(prefix = "movie.outbox")
+public class OutboxProperties {
+
+    /**
+     * Включает запись событий в outbox и их доставку ретранслятором.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Пауза между опросами таблицы outbox.
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * Количество событий, забираемых ретранслятором за одну транзакцию.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Количество попыток доставки, после которого событие помечается как FAILED и больше не забирается.
+     */
+    private int maxAttempts = 5;
+}
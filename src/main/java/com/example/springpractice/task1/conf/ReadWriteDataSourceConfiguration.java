@@ -0,0 +1,71 @@
+package com.example.springpractice.task1.conf;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Два пула соединений вместо одного: запись и транзакции с readOnly = false идут в основной пул,
+ * readOnly = true, открытые классами приложения (списки, выгрузка, перестроение поиска), - в пул реплики.
+ * Чтение не занимает соединения, нужные созданию фильмов и обновлению лейблов.
+ * <p>
+ * Оба пула - отдельные бины HikariDataSource с именами primary и replica, поэтому метрики HikariCP
+ * (hikaricp.connections.*) публикуются по каждому пулу с тегом pool.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "movie.datasource.routing", name = "enabled", havingValue = "true")
+public class ReadWriteDataSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        final HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(ReadWriteDataSourceProperties properties) {
+        final HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(properties.getReplica().getUrl());
+        dataSource.setUsername(properties.getReplica().getUsername());
+        dataSource.setPassword(properties.getReplica().getPassword());
+        dataSource.setMaximumPoolSize(properties.getReplica().getMaximumPoolSize());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               ReadWriteDataSourceProperties properties,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replicaDataSource, properties, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 MeterRegistry meterRegistry) {
+        final ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                primaryDataSource, replicaDataSource, replicaLagMonitor, meterRegistry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.springpractice.task1.conf;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки разделения чтения и записи по двум пулам соединений.
+ * Пул записи (primary) настраивается стандартными spring.datasource.*, пул чтения - здесь.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Data
+@ConfigurationProperties(prefix = "movie.datasource.routing")
+public class ReadWriteDataSourceProperties {
+
+    /**
+     * Включает маршрутизацию: транзакции readOnly = true классов приложения идут в пул реплики,
+     * остальные - в основной пул.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Подключение к реплике.
+     */
+    private Replica replica = new Replica();
+
+    /**
+     * Запрос, возвращающий отставание реплики в секундах, например для PostgreSQL:
+     * SELECT EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()).
+     * Если не задан, проверяется только доступность реплики.
+     */
+    private String lagQuery;
+
+    /**
+     * Отставание, при котором чтение переключается на основной пул до следующей успешной проверки.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * Интервал проверки отставания и доступности реплики.
+     */
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+    @Data
+    public static class Replica {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        /**
+         * Размер пула чтения.
+         */
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.springpractice.task1.conf;
+
+import com.example.springpractice.SpringPracticeApplication;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Выбор пула соединений по признаку readOnly текущей транзакции.
+ * В реплику идут только транзакции только для чтения, открытые классами приложения - методами с
+ * {@code @Transactional(readOnly = true)} или шаблоном с именем из пакета приложения. Транзакции, которые
+ * открывают сами репозитории Spring Data при вызове вне транзакции (SimpleJpaRepository - readOnly = true),
+ * идут в основной пул: чтение сразу после записи (например, поиск ответа по ключу идемпотентности)
+ * должно видеть эту запись, а реплика может отставать.
+ * Признак выставляется менеджером транзакций уже после получения соединения Hibernate, поэтому маршрутизатор
+ * работает только за {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: физическое
+ * соединение берется при первом запросе, когда признак уже известен.
+ * <p>
+ * Соединения для чтения считаются в movie.datasource.reads с тегом pool - сколько чтений ушло в реплику,
+ * а сколько вернулось в основной пул из-за отставания.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String APPLICATION_PACKAGE = SpringPracticeApplication.class.getPackageName() + ".";
+
+    public enum Pool {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica,
+                                      ReplicaLagMonitor replicaLagMonitor, MeterRegistry meterRegistry) {
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.replicaReads = readsCounter(meterRegistry, "replica");
+        this.primaryReads = readsCounter(meterRegistry, "primary");
+        setTargetDataSources(Map.of(Pool.PRIMARY, primary, Pool.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || !isApplicationTransaction()) {
+            return Pool.PRIMARY;
+        }
+        if (replicaLagMonitor.isAvailable()) {
+            replicaReads.increment();
+            return Pool.REPLICA;
+        }
+        primaryReads.increment();
+        return Pool.PRIMARY;
+    }
+
+    /**
+     * Имя декларативной транзакции - класс и метод, открывшие ее.
+     */
+    private static boolean isApplicationTransaction() {
+        final String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        return name != null && name.startsWith(APPLICATION_PACKAGE);
+    }
+
+    private static Counter readsCounter(MeterRegistry meterRegistry, String pool) {
+        return Counter.builder("movie.datasource.reads")
+                .description("Соединения, выданные транзакциям только для чтения")
+                .tag("pool", pool)
+                .register(meterRegistry);
+    }
+}
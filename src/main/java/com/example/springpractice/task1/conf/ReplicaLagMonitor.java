@@ -0,0 +1,99 @@
+package com.example.springpractice.task1.conf;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Проверка отставания и доступности реплики.
+ * Результат проверки хранится в volatile поле, и маршрутизатор читает его на каждом соединении без обращения к БД.
+ * Пока реплика недоступна или отстает больше {@link ReadWriteDataSourceProperties#getMaxLag()}, чтение идет
+ * в основной пул. Отставание публикуется метрикой movie.datasource.replica.lag (секунды),
+ * доступность - movie.datasource.replica.available.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Slf4j
+public class ReplicaLagMonitor implements SchedulingConfigurer {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final DataSource replica;
+    private final ReadWriteDataSourceProperties properties;
+
+    private volatile boolean available;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, ReadWriteDataSourceProperties properties, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.properties = properties;
+        Gauge.builder("movie.datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Отставание реплики")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("movie.datasource.replica.available", this, monitor -> monitor.available ? 1 : 0)
+                .description("Чтение направляется в реплику")
+                .register(meterRegistry);
+        check();
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::check, properties.getLagCheckInterval());
+    }
+
+    /**
+     * Можно ли сейчас читать из реплики.
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Проверка реплики. Ошибка подключения или запроса делает реплику недоступной до следующей успешной проверки.
+     */
+    public void check() {
+        boolean usable;
+        try (Connection connection = replica.getConnection()) {
+            lagSeconds = measureLag(connection);
+            usable = lagSeconds <= properties.getMaxLag().toMillis() / 1000.0;
+        } catch (SQLException | RuntimeException e) {
+            lagSeconds = Double.NaN;
+            usable = false;
+            log.debug("Проверка реплики не удалась", e);
+        }
+        if (usable != available) {
+            log.warn(usable ? "Чтение возвращено в реплику, отставание {} с"
+                    : "Чтение переключено в основной пул, отставание реплики {} с", lagSeconds);
+        }
+        available = usable;
+    }
+
+    private double measureLag(Connection connection) throws SQLException {
+        if (!StringUtils.hasText(properties.getLagQuery())) {
+            if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                throw new SQLException("Соединение с репликой невалидно");
+            }
+            return 0;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(properties.getLagQuery())) {
+            if (!resultSet.next()) {
+                throw new SQLException("Запрос отставания реплики не вернул строк");
+            }
+            final double lag = resultSet.getDouble(1);
+            // NULL - реплика еще не применила ни одной транзакции, считаем ее отстающей
+            return resultSet.wasNull() ? Double.POSITIVE_INFINITY : lag;
+        }
+    }
+}
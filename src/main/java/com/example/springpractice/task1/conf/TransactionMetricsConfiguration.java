@@ -0,0 +1,60 @@
+package com.example.springpractice.task1.conf;
+
+import com.example.springpractice.SpringPracticeApplication;
+import com.example.springpractice.task1.metrics.TransactionMethodMetricsInterceptor;
+import com.example.springpractice.task1.metrics.TransactionMetricsListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.interceptor.TransactionAttributeSource;
+
+import java.lang.reflect.Method;
+
+/**
+ * Метрики транзакций вместо DEBUG логирования менеджера транзакций.
+ * Слушатель транзакций Spring Boot регистрирует в менеджере транзакций сам,
+ * перехватчик методов применяется только к транзакционным методам классов приложения - не к репозиториям.
+ * Метрики доступны через /actuator/metrics/movie.tx.method и /actuator/metrics/movie.tx.connection.hold.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "movie.tx.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TransactionMetricsConfiguration {
+
+    private static final String APPLICATION_PACKAGE = SpringPracticeApplication.class.getPackageName() + ".";
+
+    @Bean
+    public TransactionMetricsListener transactionMetricsListener(MeterRegistry meterRegistry) {
+        return new TransactionMetricsListener(meterRegistry);
+    }
+
+    /**
+     * Инфраструктурный бин, как и транзакционный советник Spring: советники создаются раньше обычных
+     * BeanPostProcessor, и для них это ожидаемо. Реестр метрик запрашивается лениво, при первом вызове.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor transactionMethodMetricsAdvisor(TransactionAttributeSource transactionAttributeSource,
+                                                          ObjectProvider<MeterRegistry> meterRegistry) {
+        final StaticMethodMatcherPointcutAdvisor advisor = new StaticMethodMatcherPointcutAdvisor(
+                new TransactionMethodMetricsInterceptor(transactionAttributeSource, meterRegistry::getObject)) {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return targetClass.getName().startsWith(APPLICATION_PACKAGE)
+                        && transactionAttributeSource.getTransactionAttribute(method, targetClass) != null;
+            }
+        };
+        // снаружи транзакционного перехватчика - в замер попадает фиксация, а исключение видно уже после отката
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.springpractice.task1.conf;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки режима виртуальных потоков.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Data
+@ConfigurationProperties(prefix = "movie.virtual")
+public class VirtualThreadProperties {
+
+    /**
+     * Закрепления виртуального потока за несущим потоком короче этого порога не фиксируются.
+     */
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+
+    /**
+     * Количество верхних кадров стека закрепленного потока, выводимых в лог.
+     */
+    private int stackDepth = 12;
+}
@@ -0,0 +1,65 @@
+package com.example.springpractice.task1.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Data;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Ответ на запрос с ключом идемпотентности, общий для всех экземпляров приложения.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Data
+@Entity
+@Table(name = "idempotency_record", indexes = @Index(name = "idx_idempotency_record_created_at", columnList = "created_at"))
+public class IdempotencyRecord implements Persistable<String> {
+
+    /**
+     * Ключ вместе с областью: пользователь, метод и путь запроса.
+     */
+    @Id
+    @Column(name = "idempotency_key", length = 512)
+    private String key;
+
+    private int status;
+
+    private String contentType;
+
+    private String location;
+
+    @Lob
+    @Column(length = 1 << 20)
+    private byte[] body;
+
+    @Column(name = "created_at")
+    private Instant createdAt;
+
+    /**
+     * Новая запись вставляется без предварительного чтения: если ответ по ключу уже есть, вставка падает
+     * на первичном ключе, а не перезаписывает первый ответ.
+     */
+    @Transient
+    private boolean isNew = true;
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.springpractice.task1.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Отметка о загруженной пачке импорта.
+ * Пишется в той же транзакции, что и фильмы пачки, поэтому пачка либо загружена вместе с отметкой, либо нет.
+ * При повторном запуске импорта с тем же идентификатором отмеченные пачки пропускаются.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Data
+@Entity
+@EntityListeners({AuditingEntityListener.class})
+@Table(name = "import_checkpoint",
+        uniqueConstraints = @UniqueConstraint(name = "uk_import_checkpoint_chunk", columnNames = {"import_id", "chunk_index"}))
+public class ImportCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "import_checkpoint_seq")
+    @SequenceGenerator(name = "import_checkpoint_seq", sequenceName = "import_checkpoint_seq", allocationSize = 50)
+    private Long id;
+
+    @NotNull
+    private String importId;
+
+    private int chunkIndex;
+
+    /**
+     * Размер пачки, с которым шел импорт: границы пачек при повторном запуске должны совпасть.
+     */
+    private int chunkSize;
+
+    private int rows;
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+
+    public ImportCheckpoint() {
+    }
+
+    public ImportCheckpoint(String importId, int chunkIndex, int chunkSize, int rows) {
+        this.importId = importId;
+        this.chunkIndex = chunkIndex;
+        this.chunkSize = chunkSize;
+        this.rows = rows;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.springpractice.task1.domain;
+
+import com.example.springpractice.task1.conf.LabelRuleProperties.RuleType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Правило присвоения лейбла, хранимое в БД. Используется при movie.label.rules.source=database,
+ * изменения подхватываются при очередном перечитывании правил.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Data
+@Entity
+@Table(name = "label_rule")
+public class LabelRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "label_rule_seq")
+    @SequenceGenerator(name = "label_rule_seq", sequenceName = "label_rule_seq", allocationSize = 1)
+    private Long id;
+
+    @NotNull
+    private String name;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private RuleType type;
+
+    @NotNull
+    @Column(name = "match_value")
+    private String match;
+
+    private String label;
+
+    private boolean enabled = true;
+
+    public LabelRule() {
+    }
+
+    public LabelRule(String name, RuleType type, String match, String label) {
+        this.name = name;
+        this.type = type;
+        this.match = match;
+        this.label = label;
+    }
+}
@@ -1,15 +1,28 @@
 package com.example.springpractice.task1.domain;
 
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -24,11 +37,38 @@ import java.util.List;
  */
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "movie")
 @EntityListeners({AuditingEntityListener.class})
+@Table(indexes = {
+        // keyset пагинация списка фильмов: сортировка и условие по (created_at, id)
+        @Index(name = "idx_movie_created_at_id", columnList = "created_at, id"),
+        // список с фильтром по лейблу
+        @Index(name = "idx_movie_label_created_at_id", columnList = "label, created_at, id"),
+        // фильтр по началу названия
+        @Index(name = "idx_movie_name", columnList = "name")
+})
+@NamedEntityGraph(name = Movie.SUMMARY_GRAPH)
+@NamedEntityGraph(name = Movie.WITH_AUTHORS_GRAPH, attributeNodes = @NamedAttributeNode("authors"))
 public class Movie {
 
+    /**
+     * План выборки только с полями фильма, без авторов.
+     */
+    public static final String SUMMARY_GRAPH = "Movie.summary";
+
+    /**
+     * План выборки фильма вместе с авторами одним запросом.
+     */
+    public static final String WITH_AUTHORS_GRAPH = "Movie.withAuthors";
+
+    /**
+     * Идентификаторы выделяются блоками из последовательности (pooled-оптимизатор),
+     * поэтому вставка не требует обращения к sequence на каждую строку и не ломает JDBC батчинг.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movie_seq")
+    @SequenceGenerator(name = "movie_seq", sequenceName = "movie_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -37,10 +77,30 @@ public class Movie {
 
     private String label;
 
+    /**
+     * Заполняется аудитом JPA. Обязательна: по ней строится позиция списка фильмов ({@code MovieCursor}),
+     * поэтому строки, вставленные в обход сущности без даты создания, отвергаются БД.
+     */
     @CreatedDate
+    @Column(nullable = false)
     private LocalDateTime createdAt;
 
-    @ManyToMany(targetEntity = Author.class, fetch = FetchType.EAGER)
+    /**
+     * Версия для оптимистической блокировки: изменение устаревшей копии фильма не затирает чужую запись,
+     * а завершается {@link jakarta.persistence.OptimisticLockException}. Массовые UPDATE увеличивают версию явно.
+     */
+    @Version
+    private Long version;
+
+    /**
+     * Авторы загружаются лениво: там, где они нужны, используется план {@link #WITH_AUTHORS_GRAPH},
+     * а при обходе списка фильмов коллекции догружаются пачками, а не по одной на фильм.
+     */
+    @ManyToMany(targetEntity = Author.class, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "movie-authors")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<Author> authors;
 
     public Movie() {
@@ -0,0 +1,77 @@
+package com.example.springpractice.task1.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие в транзакционном outbox.
+ * Записывается в той же транзакции, что и изменение фильма, и доставляется обработчикам ретранслятором после фиксации.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Data
+@Entity
+@EntityListeners({AuditingEntityListener.class})
+@Table(name = "outbox_event", indexes = @Index(name = "idx_outbox_event_status_id", columnList = "status, id"))
+public class OutboxEvent {
+
+    public static final String MOVIE_CREATED = "MovieCreated";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+    private Long id;
+
+    @NotNull
+    private String eventType;
+
+    @NotNull
+    private Long aggregateId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private Status status = Status.NEW;
+
+    private int attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(String eventType, Long aggregateId) {
+        this.eventType = eventType;
+        this.aggregateId = aggregateId;
+    }
+
+    public enum Status {
+        /**
+         * Ожидает доставки.
+         */
+        NEW,
+        /**
+         * Попытки доставки исчерпаны.
+         */
+        FAILED
+    }
+}
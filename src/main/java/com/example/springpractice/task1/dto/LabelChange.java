@@ -0,0 +1,14 @@
+package com.example.springpractice.task1.dto;
+
+import java.time.Instant;
+
+/**
+ * Запись журнала смены лейблов.
+ *
+ * @param oldLabel  лейбл до изменения, null если его не было.
+ * @param principal пользователь, изменивший лейбл, null если изменение сделано не в запросе пользователя.
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public record LabelChange(long movieId, String oldLabel, String newLabel, Instant timestamp, String principal) {
+}
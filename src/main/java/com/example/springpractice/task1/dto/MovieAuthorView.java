@@ -0,0 +1,10 @@
+package com.example.springpractice.task1.dto;
+
+/**
+ * Проекция связи фильма с автором. Позволяет одним запросом получить авторов для целой страницы фильмов.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public record MovieAuthorView(Long movieId, Long authorId, String authorName) {
+}
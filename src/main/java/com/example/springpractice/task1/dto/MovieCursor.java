@@ -0,0 +1,37 @@
+package com.example.springpractice.task1.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция в списке фильмов для keyset пагинации - ключ сортировки (createdAt, id) последнего отданного фильма.
+ * Клиенту передается в виде непрозрачной строки.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public record MovieCursor(LocalDateTime createdAt, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        final String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException если строка не является позицией, выданной сервером
+     */
+    public static MovieCursor decode(String value) {
+        try {
+            final String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            final int separator = raw.lastIndexOf(SEPARATOR);
+            return new MovieCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Некорректная позиция списка фильмов: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.springpractice.task1.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Фильм в выгрузке каталога вместе с именами авторов.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public record MovieExport(Long id, String name, String label, LocalDateTime createdAt, List<String> authors) {
+}
@@ -0,0 +1,13 @@
+package com.example.springpractice.task1.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка выгрузки каталога: фильм и один из его авторов (null - у фильма нет авторов).
+ * Проекция не попадает в контекст персистентности, поэтому выгрузка не накапливает сущности.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public record MovieExportRow(Long movieId, String name, String label, LocalDateTime createdAt, String authorName) {
+}
@@ -0,0 +1,12 @@
+package com.example.springpractice.task1.dto;
+
+/**
+ * Фильтр списка фильмов. Незаданные поля не ограничивают выборку.
+ *
+ * @param namePrefix начало названия фильма
+ * @param label      лейбл фильма
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public record MovieFilter(String namePrefix, String label) {
+}
@@ -0,0 +1,19 @@
+package com.example.springpractice.task1.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+/**
+ * Фильм во входном файле импорта. Формат совпадает с выгрузкой каталога, id и дата создания игнорируются.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record MovieImportRecord(String name, String label, List<String> authors) {
+
+    public MovieImportRecord {
+        authors = (authors == null ? List.of() : authors);
+    }
+}
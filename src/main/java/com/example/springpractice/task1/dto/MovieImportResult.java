@@ -0,0 +1,17 @@
+package com.example.springpractice.task1.dto;
+
+import java.time.Duration;
+
+/**
+ * Итог импорта фильмов.
+ *
+ * @param movies        фильмов загружено в этом запуске
+ * @param chunks        пачек загружено в этом запуске
+ * @param skippedChunks пачек пропущено как загруженные предыдущими запусками
+ * @param authors       новых авторов создано
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public record MovieImportResult(String importId, long movies, int chunks, int skippedChunks, long authors,
+                                Duration duration) {
+}
@@ -0,0 +1,16 @@
+package com.example.springpractice.task1.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Элемент списка фильмов.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public record MovieListItem(Long id, String name, String label, LocalDateTime createdAt) {
+
+    public MovieCursor cursor() {
+        return new MovieCursor(createdAt, id);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.springpractice.task1.dto;
+
+import java.util.List;
+
+/**
+ * Фильм, найденный поиском. Поля берутся из индекса, без обращения к БД.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public record MovieSearchHit(Long id, String name, String label, List<String> authors) {
+}
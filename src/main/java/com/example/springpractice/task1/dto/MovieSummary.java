@@ -0,0 +1,20 @@
+package com.example.springpractice.task1.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция фильма без авторов - выбираются только нужные колонки, сущности не попадают в контекст персистентности.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public interface MovieSummary {
+
+    Long getId();
+
+    String getName();
+
+    String getLabel();
+
+    LocalDateTime getCreatedAt();
+}
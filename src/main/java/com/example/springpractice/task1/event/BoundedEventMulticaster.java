@@ -0,0 +1,244 @@
+package com.example.springpractice.task1.event;
+
+import com.example.springpractice.task1.conf.MovieEventDispatchProperties;
+import com.example.springpractice.task1.conf.MovieEventDispatchProperties.ListenerDispatch;
+import com.example.springpractice.task1.conf.MovieEventDispatchProperties.OverloadPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.event.TransactionalApplicationListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Рассыльщик событий с ограниченной асинхронной доставкой событий по фильмам.
+ * <p>
+ * Для обработчиков, перечисленных в {@link MovieEventDispatchProperties#getListeners()}, события кладутся
+ * в собственную ограниченную очередь обработчика и обрабатываются его исполнителем. При заполнении очереди
+ * срабатывает выбранная {@link OverloadPolicy}. Остальные обработчики и события вызываются синхронно, как и раньше.
+ * <p>
+ * Транзакционные обработчики ({@link TransactionalApplicationListener}) всегда вызываются в публикующем потоке:
+ * они лишь регистрируют синхронизацию текущей транзакции, в чужом потоке транзакции нет.
+ * Асинхронные обработчики не видят ни транзакцию, ни контекст безопасности публикующего потока.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Slf4j
+public class BoundedEventMulticaster extends SimpleApplicationEventMulticaster implements DisposableBean {
+
+    private static final String MOVIE_EVENTS_PACKAGE = MovieCreatedEvent.class.getPackageName();
+
+    private final MovieEventDispatchProperties properties;
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final Function<String, ThreadFactory> threadFactories;
+    private final Map<ApplicationListener<?>, Optional<ListenerDispatcher>> listenerDispatchers = new ConcurrentHashMap<>();
+    private final Map<String, ListenerDispatcher> dispatchers = new ConcurrentHashMap<>();
+
+    /**
+     * @param meterRegistry реестр метрик запрашивается лениво: рассыльщик создается раньше остальных бинов контекста.
+     */
+    public BoundedEventMulticaster(BeanFactory beanFactory,
+                                   MovieEventDispatchProperties properties,
+                                   Supplier<MeterRegistry> meterRegistry) {
+        this(beanFactory, properties, meterRegistry, CustomizableThreadFactory::new);
+    }
+
+    /**
+     * @param threadFactories фабрика потоков исполнителя по префиксу имени потока,
+     *                        например, фабрика виртуальных потоков.
+     */
+    public BoundedEventMulticaster(BeanFactory beanFactory,
+                                   MovieEventDispatchProperties properties,
+                                   Supplier<MeterRegistry> meterRegistry,
+                                   Function<String, ThreadFactory> threadFactories) {
+        super(beanFactory);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.threadFactories = threadFactories;
+    }
+
+    @Override
+    public void multicastEvent(ApplicationEvent event, @Nullable ResolvableType eventType) {
+        if (!isMovieEvent(event)) {
+            super.multicastEvent(event, eventType);
+            return;
+        }
+        final ResolvableType type = (eventType != null ? eventType : ResolvableType.forInstance(event));
+        for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
+            final Optional<ListenerDispatcher> dispatcher =
+                    listenerDispatchers.computeIfAbsent(listener, this::resolveDispatcher);
+            if (dispatcher.isPresent()) {
+                dispatcher.get().dispatch(() -> invokeListener(listener, event));
+            } else {
+                invokeListener(listener, event);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        for (ListenerDispatcher dispatcher : dispatchers.values()) {
+            dispatcher.shutdown();
+        }
+    }
+
+    private static boolean isMovieEvent(ApplicationEvent event) {
+        final Object payload = (event instanceof PayloadApplicationEvent<?> payloadEvent ? payloadEvent.getPayload() : event);
+        return payload.getClass().getPackageName().equals(MOVIE_EVENTS_PACKAGE);
+    }
+
+    private Optional<ListenerDispatcher> resolveDispatcher(ApplicationListener<?> listener) {
+        if (!(listener instanceof SmartApplicationListener smartListener)
+                || listener instanceof TransactionalApplicationListener<?>) {
+            return Optional.empty();
+        }
+        final String listenerId = smartListener.getListenerId();
+        return properties.getListeners().entrySet().stream()
+                .filter(entry -> matches(listenerId, entry.getKey()))
+                .findFirst()
+                .map(entry -> dispatchers.computeIfAbsent(entry.getKey(),
+                        key -> new ListenerDispatcher(key, entry.getValue(), meterRegistry.get(),
+                                threadFactories.apply("event-" + key + "-"))));
+    }
+
+    /**
+     * Ключ настроек - listenerId целиком или Класс#метод. listenerId метода с {@code @EventListener}
+     * без явного id - класс с пакетом, метод и типы параметров: {@code com.example.Processor.onCreated(com.example.Event)}.
+     * Класс задается с пакетом или простым именем.
+     */
+    private static boolean matches(String listenerId, String key) {
+        if (listenerId.equals(key)) {
+            return true;
+        }
+        final int hash = key.indexOf('#');
+        if (hash < 0) {
+            return false;
+        }
+        final int parameters = listenerId.indexOf('(');
+        final String qualifiedMethod = (parameters < 0 ? listenerId : listenerId.substring(0, parameters));
+        final int dot = qualifiedMethod.lastIndexOf('.');
+        if (dot < 0 || !qualifiedMethod.substring(dot + 1).equals(key.substring(hash + 1))) {
+            return false;
+        }
+        final String className = qualifiedMethod.substring(0, dot);
+        final String keyClass = key.substring(0, hash);
+        return keyClass.equals(className)
+                || keyClass.equals(className.substring(Math.max(className.lastIndexOf('.'), className.lastIndexOf('$')) + 1));
+    }
+
+    /**
+     * Ограниченный исполнитель одного обработчика со своими метриками.
+     */
+    private static final class ListenerDispatcher {
+
+        private final String name;
+        private final ThreadPoolExecutor executor;
+        private final Timer latency;
+
+        ListenerDispatcher(String name, ListenerDispatch settings, MeterRegistry registry, ThreadFactory threadFactory) {
+            this.name = name;
+            final Counter rejected = Counter.builder("movie.events.dispatch.rejected")
+                    .description("События, попавшие под политику переполнения очереди")
+                    .tag("listener", name)
+                    .tag("policy", settings.getOverloadPolicy().name())
+                    .register(registry);
+            final Counter blocked = Counter.builder("movie.events.dispatch.blocked")
+                    .description("События, публикация которых ждала места в очереди (политика BLOCK)")
+                    .tag("listener", name)
+                    .register(registry);
+            this.latency = Timer.builder("movie.events.dispatch.latency")
+                    .description("Время от публикации события до окончания обработки")
+                    .tag("listener", name)
+                    .register(registry);
+            this.executor = new ThreadPoolExecutor(settings.getThreads(), settings.getThreads(),
+                    0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(settings.getQueueCapacity()),
+                    threadFactory,
+                    overloadHandler(settings.getOverloadPolicy(), rejected, blocked));
+            Gauge.builder("movie.events.dispatch.queue.depth", executor, pool -> pool.getQueue().size())
+                    .description("События, ожидающие обработки")
+                    .tag("listener", name)
+                    .register(registry);
+        }
+
+        void dispatch(Runnable invocation) {
+            final long start = System.nanoTime();
+            executor.execute(() -> {
+                try {
+                    invocation.run();
+                } catch (Throwable ex) {
+                    log.error("Ошибка асинхронной обработки события обработчиком {}", name, ex);
+                } finally {
+                    latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            });
+        }
+
+        void shutdown() throws InterruptedException {
+            executor.shutdown();
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("Обработчик {} остановлен принудительно, не обработано событий: {}", name, executor.getQueue().size());
+                executor.shutdownNow();
+            }
+        }
+
+        /**
+         * При BLOCK событие после ожидания принимается, поэтому ожидание считается в blocked,
+         * а в rejected - только события, которые так и не попали в очередь.
+         */
+        private static RejectedExecutionHandler overloadHandler(OverloadPolicy policy, Counter rejected, Counter blocked) {
+            return switch (policy) {
+                case BLOCK -> (task, pool) -> {
+                    if (pool.isShutdown()) {
+                        rejected.increment();
+                        throw new RejectedExecutionException("Исполнитель обработчика остановлен");
+                    }
+                    blocked.increment();
+                    try {
+                        pool.getQueue().put(task);
+                    } catch (InterruptedException e) {
+                        rejected.increment();
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Ожидание места в очереди прервано", e);
+                    }
+                };
+                case DROP_OLDEST -> (task, pool) -> {
+                    rejected.increment();
+                    if (!pool.isShutdown()) {
+                        pool.getQueue().poll();
+                        pool.execute(task);
+                    }
+                };
+                case CALLER_RUNS -> (task, pool) -> {
+                    rejected.increment();
+                    if (!pool.isShutdown()) {
+                        task.run();
+                    }
+                };
+            };
+        }
+    }
+}
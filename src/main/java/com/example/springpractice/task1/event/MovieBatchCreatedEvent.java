@@ -0,0 +1,49 @@
+package com.example.springpractice.task1.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * Событие пакетного создания фильмов - одно на транзакцию, а не на фильм.
+ * Обработчики с {@code @TransactionalEventListener} регистрируют одну синхронизацию транзакции на весь пакет,
+ * и память пакетного создания не растет вместе с числом фильмов.
+ * Обработчики, присваивающие лейбл, берут {@link #getUnlabeledMovieIds()}: фильмы импорта приходят со своим лейблом.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public class MovieBatchCreatedEvent extends ApplicationEvent {
+
+    private final List<Long> movieIds;
+    private final List<Long> unlabeledMovieIds;
+
+    public MovieBatchCreatedEvent(Object source, List<Long> movieIds) {
+        this(source, movieIds, movieIds);
+    }
+
+    /**
+     * @param unlabeledMovieIds фильмы пакета, созданные без лейбла.
+     */
+    public MovieBatchCreatedEvent(Object source, List<Long> movieIds, List<Long> unlabeledMovieIds) {
+        super(source);
+        this.movieIds = List.copyOf(movieIds);
+        this.unlabeledMovieIds = unlabeledMovieIds == movieIds ? this.movieIds : List.copyOf(unlabeledMovieIds);
+    }
+
+    public List<Long> getMovieIds() {
+        return movieIds;
+    }
+
+    /**
+     * Фильмы пакета, которым нужно присвоить лейбл.
+     */
+    public List<Long> getUnlabeledMovieIds() {
+        return unlabeledMovieIds;
+    }
+
+    @Override
+    public String toString() {
+        return "MovieBatchCreatedEvent[movies=" + movieIds.size() + "]";
+    }
+}
@@ -5,20 +5,36 @@ import org.springframework.context.ApplicationEvent;
 
 /**
  * Событие создания фильма.
+ * Несет идентификатор и название, а не сущность: событие не удерживает управляемую сущность и контекст
+ * персистентности, в том числе в очередях асинхронной доставки. Обработчик в транзакции создания получает
+ * ту же сущность по идентификатору из контекста персистентности, без запроса к БД.
+ * <p>
+ * Источник - публикующий сервис: так публикация не оборачивает событие в PayloadApplicationEvent.
  *
  * @author Klim Ross
  * @since 2023.12.02
  */
 public class MovieCreatedEvent extends ApplicationEvent {
 
-    private final Movie movie;
+    private final Long movieId;
+    private final String name;
 
-    public MovieCreatedEvent(Movie movie) {
-        super(movie);
-        this.movie = movie;
+    public MovieCreatedEvent(Object source, Movie movie) {
+        super(source);
+        this.movieId = movie.getId();
+        this.name = movie.getName();
     }
 
-    public Movie getMovie() {
-        return movie;
+    public Long getMovieId() {
+        return movieId;
     }
-}
\ No newline at end of file
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return "MovieCreatedEvent[movieId=" + movieId + ", name=" + name + "]";
+    }
+}
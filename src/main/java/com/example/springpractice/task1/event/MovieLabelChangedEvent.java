@@ -0,0 +1,36 @@
+package com.example.springpractice.task1.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Событие смены лейбла одного или нескольких фильмов.
+ * Как и {@link MovieCreatedEvent}, несет только идентификаторы: актуальное состояние обработчики читают сами.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public class MovieLabelChangedEvent extends ApplicationEvent {
+
+    private final List<Long> movieIds;
+
+    public MovieLabelChangedEvent(Object source, Long movieId) {
+        this(source, List.of(movieId));
+    }
+
+    public MovieLabelChangedEvent(Object source, Collection<Long> movieIds) {
+        super(source);
+        this.movieIds = List.copyOf(movieIds);
+    }
+
+    public List<Long> getMovieIds() {
+        return movieIds;
+    }
+
+    @Override
+    public String toString() {
+        return "MovieLabelChangedEvent[movieIds=" + movieIds + "]";
+    }
+}
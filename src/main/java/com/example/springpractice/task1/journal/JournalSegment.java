@@ -0,0 +1,265 @@
+package com.example.springpractice.task1.journal;
+
+import com.example.springpractice.task1.dto.LabelChange;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Сегмент журнала - файл фиксированного размера, отображенный в память.
+ * <p>
+ * Формат записи: длина тела (int), CRC32C тела (int), тело: идентификатор фильма (long), время в миллисекундах (long),
+ * старый лейбл, новый лейбл и пользователь - каждый как длина в байтах UTF-8 (short, -1 для null) и байты.
+ * Нулевая длина означает конец записей. Длина пишется последней, поэтому запись, оборванная падением процесса,
+ * не видна: при открытии сегмент читается до первой записи с неверной длиной или CRC.
+ * <p>
+ * Разреженный индекс - по одному блоку на каждые indexInterval байт записей: позиция начала блока и фильтр Блума
+ * по идентификаторам фильмов в блоке. Поиск по фильму читает только блоки, фильтр которых его допускает.
+ * <p>
+ * Запись - только из одного потока (вызовы синхронизирует журнал), чтение - из любых: граница прочитанного
+ * берется из volatile limit, которая сдвигается после записи тела, CRC и фильтра блока.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+final class JournalSegment {
+
+    private static final int HEADER_SIZE = 8;
+    private static final int FIXED_BODY_SIZE = 8 + 8 + 3 * 2;
+    private static final int BLOOM_WORDS = 4;
+    private static final int BLOOM_BITS = BLOOM_WORDS * 64;
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int indexInterval;
+    private final List<Block> blocks = new CopyOnWriteArrayList<>();
+
+    private volatile int limit;
+
+    private JournalSegment(Path file, MappedByteBuffer buffer, int indexInterval) {
+        this.file = file;
+        this.buffer = buffer;
+        this.indexInterval = indexInterval;
+    }
+
+    /**
+     * Открывает сегмент, создавая файл размером size, если его нет, и восстанавливает индекс чтением записей.
+     */
+    static JournalSegment open(Path file, int size, int indexInterval, boolean writable) throws IOException {
+        final MappedByteBuffer buffer;
+        if (writable) {
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+            }
+        } else {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+        final JournalSegment segment = new JournalSegment(file, buffer, indexInterval);
+        segment.recover(writable);
+        return segment;
+    }
+
+    int size() {
+        return limit;
+    }
+
+    /**
+     * Размер записи в байтах вместе с заголовком.
+     */
+    private static int recordSize(byte[] oldLabel, byte[] newLabel, byte[] principal) {
+        return HEADER_SIZE + FIXED_BODY_SIZE + length(oldLabel) + length(newLabel) + length(principal);
+    }
+
+    /**
+     * Дописывает запись в конец сегмента.
+     *
+     * @return false, если запись не помещается и нужен новый сегмент
+     */
+    boolean append(LabelChange change) {
+        final byte[] oldLabel = utf8(change.oldLabel());
+        final byte[] newLabel = utf8(change.newLabel());
+        final byte[] principal = utf8(change.principal());
+        final int position = limit;
+        final int recordSize = recordSize(oldLabel, newLabel, principal);
+        if (position + recordSize > buffer.capacity()) {
+            return false;
+        }
+        final ByteBuffer body = buffer.duplicate().position(position + HEADER_SIZE).limit(position + recordSize).slice();
+        body.putLong(change.movieId());
+        body.putLong(change.timestamp().toEpochMilli());
+        putString(body, oldLabel);
+        putString(body, newLabel);
+        putString(body, principal);
+        body.flip();
+        buffer.putInt(position + 4, crc(body));
+        buffer.putInt(position, recordSize - HEADER_SIZE);
+        index(position, change.movieId());
+        limit = position + recordSize;
+        return true;
+    }
+
+    /**
+     * Передает consumer все записи фильма в порядке записи.
+     */
+    void scan(long movieId, Consumer<LabelChange> consumer) {
+        final int end = limit;
+        for (int i = 0; i < blocks.size(); i++) {
+            final Block block = blocks.get(i);
+            if (block.position >= end) {
+                break;
+            }
+            if (!block.mightContain(movieId)) {
+                continue;
+            }
+            final int blockEnd = i + 1 < blocks.size() ? Math.min(blocks.get(i + 1).position, end) : end;
+            for (int position = block.position; position < blockEnd; ) {
+                final int bodySize = buffer.getInt(position);
+                if (buffer.getLong(position + HEADER_SIZE) == movieId) {
+                    consumer.accept(decode(position, bodySize));
+                }
+                position += HEADER_SIZE + bodySize;
+            }
+        }
+    }
+
+    /**
+     * Сбрасывает записанные страницы на диск.
+     */
+    void force() {
+        buffer.force();
+    }
+
+    private void recover(boolean writable) {
+        int position = 0;
+        while (position + HEADER_SIZE <= buffer.capacity()) {
+            final int bodySize = buffer.getInt(position);
+            if (bodySize < FIXED_BODY_SIZE || position + HEADER_SIZE + bodySize > buffer.capacity()) {
+                break;
+            }
+            final ByteBuffer body = buffer.duplicate().position(position + HEADER_SIZE)
+                    .limit(position + HEADER_SIZE + bodySize).slice();
+            if (crc(body) != buffer.getInt(position + 4)) {
+                break;
+            }
+            index(position, body.getLong(0));
+            position += HEADER_SIZE + bodySize;
+        }
+        if (writable && position + HEADER_SIZE <= buffer.capacity()) {
+            // оборванная запись: затираем длину, чтобы следующая короткая запись не открыла ее хвост
+            buffer.putInt(position, 0);
+        }
+        limit = position;
+    }
+
+    private void index(int position, long movieId) {
+        Block current = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+        if (current == null || position - current.position >= indexInterval) {
+            current = new Block(position);
+            current.add(movieId);
+            blocks.add(current);
+        } else {
+            current.add(movieId);
+        }
+    }
+
+    private LabelChange decode(int position, int bodySize) {
+        final ByteBuffer body = buffer.duplicate().position(position + HEADER_SIZE)
+                .limit(position + HEADER_SIZE + bodySize).slice();
+        if (crc(body) != buffer.getInt(position + 4)) {
+            throw new IllegalStateException("Повреждена запись журнала " + file + " на позиции " + position);
+        }
+        final long movieId = body.getLong();
+        final Instant timestamp = Instant.ofEpochMilli(body.getLong());
+        return new LabelChange(movieId, getString(body), getString(body), timestamp, getString(body));
+    }
+
+    private static int crc(ByteBuffer body) {
+        final CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        return (int) crc.getValue();
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+
+    private static void putString(ByteBuffer body, byte[] value) {
+        if (value == null) {
+            body.putShort((short) -1);
+            return;
+        }
+        if (value.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Строка длиннее " + Short.MAX_VALUE + " байт не помещается в запись журнала");
+        }
+        body.putShort((short) value.length);
+        body.put(value);
+    }
+
+    private static String getString(ByteBuffer body) {
+        final short length = body.getShort();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Блок разреженного индекса: позиция первой записи и фильтр Блума по идентификаторам фильмов.
+     * Биты выставляются до сдвига limit сегмента, поэтому читатель, увидевший запись, видит и ее биты.
+     */
+    private static final class Block {
+
+        private final int position;
+        private final long[] bloom = new long[BLOOM_WORDS];
+
+        private Block(int position) {
+            this.position = position;
+        }
+
+        private void add(long movieId) {
+            final long hash = mix(movieId);
+            set((int) hash);
+            set((int) (hash >>> 32));
+        }
+
+        private boolean mightContain(long movieId) {
+            final long hash = mix(movieId);
+            return isSet((int) hash) && isSet((int) (hash >>> 32));
+        }
+
+        private void set(int hash) {
+            final int bit = Math.floorMod(hash, BLOOM_BITS);
+            bloom[bit >>> 6] |= 1L << bit;
+        }
+
+        private boolean isSet(int hash) {
+            final int bit = Math.floorMod(hash, BLOOM_BITS);
+            return (bloom[bit >>> 6] & (1L << bit)) != 0;
+        }
+
+        private static long mix(long value) {
+            long hash = value * 0x9E3779B97F4A7C15L;
+            hash ^= hash >>> 32;
+            return hash * 0xBF58476D1CE4E5B9L;
+        }
+    }
+}
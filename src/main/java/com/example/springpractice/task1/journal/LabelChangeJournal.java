@@ -0,0 +1,132 @@
+package com.example.springpractice.task1.journal;
+
+import com.example.springpractice.task1.dto.LabelChange;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Журнал смены лейблов: только дописывание, сегменты - файлы, отображенные в память (см. {@link JournalSegment}).
+ * Запись не ходит в БД и не делает системных вызовов, пока не нужен новый сегмент: байты пишутся в страничный
+ * кэш и переживают падение процесса, а на диск сбрасываются ОС, при смене сегмента и при закрытии журнала.
+ * <p>
+ * Сегменты называются по порядковому номеру (00000000000000000000.journal, ...), последний - активный.
+ * Когда запись не помещается в активный сегмент, создается следующий.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public class LabelChangeJournal implements Closeable {
+
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int indexInterval;
+    private final List<JournalSegment> segments = new CopyOnWriteArrayList<>();
+
+    private JournalSegment active;
+    private boolean closed;
+
+    private LabelChangeJournal(Path directory, int segmentSize, int indexInterval) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.indexInterval = indexInterval;
+    }
+
+    /**
+     * Открывает журнал в каталоге, создавая каталог и первый сегмент при необходимости.
+     *
+     * @param segmentSize   размер файла сегмента в байтах.
+     * @param indexInterval байт записей на один блок разреженного индекса.
+     */
+    public static LabelChangeJournal open(Path directory, int segmentSize, int indexInterval) throws IOException {
+        Files.createDirectories(directory);
+        final LabelChangeJournal journal = new LabelChangeJournal(directory, segmentSize, indexInterval);
+        final List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        for (int i = 0; i < files.size(); i++) {
+            final boolean last = i == files.size() - 1;
+            journal.segments.add(JournalSegment.open(files.get(i), segmentSize, indexInterval, last));
+        }
+        if (journal.segments.isEmpty()) {
+            journal.segments.add(JournalSegment.open(journal.segmentFile(0), segmentSize, indexInterval, true));
+        }
+        journal.active = journal.segments.get(journal.segments.size() - 1);
+        return journal;
+    }
+
+    /**
+     * Дописывает запись, при необходимости открывая новый сегмент.
+     *
+     * @throws IllegalArgumentException если запись больше сегмента
+     */
+    public synchronized void append(LabelChange change) {
+        if (closed) {
+            throw new IllegalStateException("Журнал закрыт");
+        }
+        if (active.append(change)) {
+            return;
+        }
+        if (active.size() == 0) {
+            throw new IllegalArgumentException("Запись журнала больше сегмента " + segmentSize + " байт");
+        }
+        roll();
+        if (!active.append(change)) {
+            throw new IllegalArgumentException("Запись журнала больше сегмента " + segmentSize + " байт");
+        }
+    }
+
+    /**
+     * История лейблов фильма в порядке изменений.
+     */
+    public List<LabelChange> findByMovieId(long movieId) {
+        final List<LabelChange> changes = new ArrayList<>();
+        for (JournalSegment segment : segments) {
+            segment.scan(movieId, changes::add);
+        }
+        return changes;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Сбрасывает активный сегмент на диск.
+     */
+    public synchronized void flush() {
+        active.force();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            active.force();
+        }
+    }
+
+    private void roll() {
+        active.force();
+        try {
+            active = JournalSegment.open(segmentFile(segments.size()), segmentSize, indexInterval, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось создать сегмент журнала в " + directory, e);
+        }
+        segments.add(active);
+    }
+
+    private Path segmentFile(int number) {
+        return directory.resolve(String.format("%020d%s", number, SUFFIX));
+    }
+}
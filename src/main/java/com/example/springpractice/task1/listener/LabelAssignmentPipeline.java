@@ -0,0 +1,197 @@
+package com.example.springpractice.task1.listener;
+
+import com.example.springpractice.task1.conf.LabelPipelineProperties;
+import com.example.springpractice.task1.event.MovieBatchCreatedEvent;
+import com.example.springpractice.task1.event.MovieCreatedEvent;
+import com.example.springpractice.task1.service.LabelService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Асинхронный конвейер присвоения лейблов.
+ * После фиксации транзакции создания фильма его идентификатор кладется в ограниченную очередь,
+ * выделенный поток забирает фильмы пачками и проставляет лейбл одним UPDATE на пачку.
+ * Таким образом время ответа на создание фильма не зависит от стоимости присвоения лейбла.
+ * <p>
+ * Если очередь заполнена, лейбл присваивается синхронно в новой транзакции - так конвейер создает
+ * обратное давление на публикующий поток, а не теряет фильмы.
+ * <p>
+ * Если пачка не обработалась, лейбл присваивается каждому фильму пачки по отдельности, в своей транзакции:
+ * один проблемный фильм не оставляет без лейбла остальные. Фильмы, которым лейбл так и не присвоен,
+ * считаются в movie.label.pipeline.failures.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "movie.label.pipeline", name = "enabled", havingValue = "true")
+public class LabelAssignmentPipeline {
+
+    private final LabelService labelService;
+    private final LabelPipelineProperties properties;
+    private final TransactionTemplate requiresNewTemplate;
+    private final BlockingQueue<Long> queue;
+    private final ExecutorService executor;
+    private final Counter failures;
+
+    private volatile boolean running = true;
+
+    public LabelAssignmentPipeline(LabelService labelService,
+                                   LabelPipelineProperties properties,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.labelService = labelService;
+        this.properties = properties;
+        this.requiresNewTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.failures = Counter.builder("movie.label.pipeline.failures")
+                .description("Фильмы, которым конвейер не смог присвоить лейбл")
+                .register(meterRegistry);
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("label-pipeline-"));
+        this.executor.execute(this::drainLoop);
+    }
+
+    /**
+     * Отрабатывает после фиксации транзакции создания фильма - в очередь попадают только сохраненные фильмы.
+     */
+    @TransactionalEventListener
+    public void onMovieCreated(MovieCreatedEvent event) {
+        enqueue(List.of(event.getMovieId()));
+    }
+
+    @TransactionalEventListener
+    public void onMovieBatchCreated(MovieBatchCreatedEvent event) {
+        enqueue(event.getUnlabeledMovieIds());
+    }
+
+    /**
+     * Количество фильмов, ожидающих присвоения лейбла.
+     */
+    public int pending() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Конвейер лейблов остановлен принудительно, не обработано фильмов: {}", queue.size());
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Если поток публикации прерван, фильмы больше не ждут места в очереди, а флаг прерывания восстанавливается
+     * только после синхронного присвоения: JDBC и пул соединений на прерванном потоке могут отказать.
+     */
+    private void enqueue(List<Long> movieIds) {
+        final long timeout = properties.getEnqueueTimeout().toNanos();
+        final List<Long> rejected = new ArrayList<>();
+        boolean interrupted = false;
+        for (Long movieId : movieIds) {
+            try {
+                if (running && (interrupted ? queue.offer(movieId) : queue.offer(movieId, timeout, TimeUnit.NANOSECONDS))) {
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+            rejected.add(movieId);
+        }
+        try {
+            if (!rejected.isEmpty()) {
+                log.warn("Очередь присвоения лейблов недоступна, присваиваем лейбл синхронно: {} фильмов", rejected.size());
+                requiresNewTemplate.executeWithoutResult(status -> labelService.assignLabels(rejected));
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void drainLoop() {
+        final int batchSize = properties.getBatchSize();
+        final List<Long> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                final Long first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch, batchSize);
+                flush(batch);
+            } catch (InterruptedException e) {
+                // уже забранные из очереди фильмы обрабатываются до восстановления флага прерывания
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Добирает пачку до batchSize, но ждет не дольше linger с момента получения первого фильма.
+     */
+    private void collect(List<Long> batch, int batchSize) throws InterruptedException {
+        final long deadline = System.nanoTime() + properties.getLinger().toNanos();
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            final long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            final Long next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<Long> batch) {
+        try {
+            labelService.assignLabels(batch);
+            log.debug("Лейбл присвоен пачке фильмов: {}", batch.size());
+        } catch (RuntimeException e) {
+            log.warn("Не удалось присвоить лейбл пачке фильмов: {}, присваиваем по одному", batch.size(), e);
+            assignOneByOne(batch);
+        }
+    }
+
+    private void assignOneByOne(List<Long> batch) {
+        for (Long movieId : batch) {
+            try {
+                labelService.assignLabel(movieId);
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.error("Не удалось присвоить лейбл фильму {}", movieId, e);
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.springpractice.task1.listener;
 
 
+import com.example.springpractice.task1.event.MovieBatchCreatedEvent;
 import com.example.springpractice.task1.event.MovieCreatedEvent;
 import com.example.springpractice.task1.service.LabelService;
 import lombok.extern.slf4j.Slf4j;
@@ -34,8 +35,17 @@ public class MovieCreatedEventProcessor {
      */
     @EventListener
     public void processMovieCreatedEventSameTxn(MovieCreatedEvent event) {
-        log.info("processMovieCreatedEventSameTxn: Event is " + event);
-        labelService.assignLabel(event.getMovie());
+        log.info("processMovieCreatedEventSameTxn: Event is {}", event);
+        labelService.assignLabel(event.getMovieId());
+    }
+
+    /**
+     * Пакетное создание: лейбл присваивается всем фильмам пакета в той же транзакции, UPDATE на каждый лейбл.
+     */
+    @EventListener
+    public void processMovieBatchCreatedEventSameTxn(MovieBatchCreatedEvent event) {
+        log.info("processMovieBatchCreatedEventSameTxn: Event is {}", event);
+        labelService.assignLabels(event.getUnlabeledMovieIds());
     }
 
     /**
@@ -46,8 +56,8 @@ public class MovieCreatedEventProcessor {
     public void processMovieCreatedEventTxnAfterCommit(MovieCreatedEvent event) {
         // обработка лейбла после с фиксации транзакции - лейбл сохранен не будет, т.к. активная транзакция уже зафиксирована.
         // для сохранений дб новая транзакция для сервиса ниже
-        log.info("processMovieCreatedEventAfterCommit: Event is " + event);
-        labelService.assignLabel(event.getMovie());
+        log.info("processMovieCreatedEventAfterCommit: Event is {}", event);
+        labelService.assignLabel(event.getMovieId());
     }
 
     /**
@@ -56,7 +66,7 @@ public class MovieCreatedEventProcessor {
      */
     @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
     public void processMovieCreatedEventTxnAfterRollback(MovieCreatedEvent event) {
-        log.info("processMovieCreatedEventAfterRollback: Event is " + event);
+        log.info("processMovieCreatedEventAfterRollback: Event is {}", event);
         log.info("sending notifications...");
     }
 
@@ -66,7 +76,7 @@ public class MovieCreatedEventProcessor {
      */
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
     public void processMovieCreatedEventTxnAfterCompletion(MovieCreatedEvent event) {
-        log.info("processMovieCreatedEventAfterCompletion: Event is " + event);
+        log.info("processMovieCreatedEventAfterCompletion: Event is {}", event);
         log.info("free resources...");
     }
 
@@ -76,7 +86,7 @@ public class MovieCreatedEventProcessor {
      */
     @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
     public void processMovieCreatedEventTxnBeforeCommit(MovieCreatedEvent event) {
-        log.info("processMovieCreatedEventBeforeCommit: Event is " + event);
-        labelService.assignLabel(event.getMovie());
+        log.info("processMovieCreatedEventBeforeCommit: Event is {}", event);
+        labelService.assignLabel(event.getMovieId());
     }
 }
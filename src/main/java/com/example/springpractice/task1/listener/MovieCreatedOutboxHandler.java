@@ -0,0 +1,35 @@
+package com.example.springpractice.task1.listener;
+
+import com.example.springpractice.task1.domain.OutboxEvent;
+import com.example.springpractice.task1.service.LabelService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Обработчик события создания фильма из outbox - присваивает лейбл всей пачке фильмов одним UPDATE.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Component
+@ConditionalOnProperty(prefix = "movie.outbox", name = "enabled", havingValue = "true")
+public class MovieCreatedOutboxHandler implements OutboxEventHandler {
+
+    private final LabelService labelService;
+
+    public MovieCreatedOutboxHandler(LabelService labelService) {
+        this.labelService = labelService;
+    }
+
+    @Override
+    public String eventType() {
+        return OutboxEvent.MOVIE_CREATED;
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        labelService.assignLabels(events.stream().map(OutboxEvent::getAggregateId).toList());
+    }
+}
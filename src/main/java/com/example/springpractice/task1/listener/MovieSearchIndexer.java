@@ -0,0 +1,200 @@
+package com.example.springpractice.task1.listener;
+
+import com.example.springpractice.task1.conf.MovieSearchProperties;
+import com.example.springpractice.task1.event.MovieBatchCreatedEvent;
+import com.example.springpractice.task1.event.MovieCreatedEvent;
+import com.example.springpractice.task1.event.MovieLabelChangedEvent;
+import com.example.springpractice.task1.service.MovieSearchService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Синхронизация индекса поиска с БД.
+ * После фиксации транзакции, создавшей фильм или сменившей лейбл, идентификаторы кладутся в ограниченную очередь.
+ * Выделенный поток забирает их пачками, переиндексирует пачку по текущему состоянию в БД и открывает изменения
+ * поиску - фильм появляется в поиске не позже чем через {@link MovieSearchProperties#getLinger()} и время пачки.
+ * Индекс фиксируется на диске раз в {@link MovieSearchProperties#getCommitInterval()}.
+ * <p>
+ * Если очередь заполнена, фильмы переиндексируются синхронно в потоке публикации, как в {@link LabelAssignmentPipeline}.
+ * Фильмы, созданные в обход событий (импорт), попадают в индекс при перестроении.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "movie.search", name = "enabled", havingValue = "true")
+public class MovieSearchIndexer {
+
+    private final MovieSearchService movieSearchService;
+    private final MovieSearchProperties properties;
+    private final BlockingQueue<Long> queue;
+    private final ExecutorService executor;
+
+    private volatile boolean running = true;
+
+    public MovieSearchIndexer(MovieSearchService movieSearchService, MovieSearchProperties properties) {
+        this.movieSearchService = movieSearchService;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("search-indexer-"));
+    }
+
+    /**
+     * Индексация начинается, когда приложение готово: пустой индекс сначала строится из БД,
+     * события, пришедшие до этого, ждут в очереди.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.execute(() -> {
+            if (properties.isRebuildOnStartup() && movieSearchService.size() == 0) {
+                try {
+                    movieSearchService.rebuild();
+                } catch (RuntimeException e) {
+                    log.error("Не удалось построить индекс поиска при запуске", e);
+                }
+            }
+            drainLoop();
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieCreated(MovieCreatedEvent event) {
+        enqueue(List.of(event.getMovieId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieBatchCreated(MovieBatchCreatedEvent event) {
+        enqueue(event.getMovieIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLabelChanged(MovieLabelChangedEvent event) {
+        enqueue(event.getMovieIds());
+    }
+
+    /**
+     * Количество фильмов, ожидающих переиндексации.
+     */
+    public int pending() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Индексация остановлена принудительно, не переиндексировано фильмов: {}", queue.size());
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Прерывание обрабатывается как в {@link LabelAssignmentPipeline}: флаг восстанавливается после синхронной
+     * переиндексации.
+     */
+    private void enqueue(Collection<Long> movieIds) {
+        final long timeout = properties.getEnqueueTimeout().toNanos();
+        final List<Long> rejected = new ArrayList<>();
+        boolean interrupted = false;
+        for (Long movieId : movieIds) {
+            try {
+                if (running && (interrupted ? queue.offer(movieId) : queue.offer(movieId, timeout, TimeUnit.NANOSECONDS))) {
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+            rejected.add(movieId);
+        }
+        try {
+            if (!rejected.isEmpty()) {
+                log.warn("Очередь индексации недоступна, переиндексируем синхронно: {} фильмов", rejected.size());
+                movieSearchService.reindex(rejected);
+                movieSearchService.refresh();
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void drainLoop() {
+        final int batchSize = properties.getBatchSize();
+        final List<Long> batch = new ArrayList<>(batchSize);
+        long lastCommit = System.nanoTime();
+        while (running || !queue.isEmpty()) {
+            try {
+                final Long first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    collect(batch, batchSize);
+                    flush(batch);
+                }
+                if (System.nanoTime() - lastCommit >= properties.getCommitInterval().toNanos()) {
+                    movieSearchService.commit();
+                    lastCommit = System.nanoTime();
+                }
+            } catch (InterruptedException e) {
+                // уже забранные из очереди фильмы индексируются до выхода
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Не удалось зафиксировать индекс поиска", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Добирает пачку до batchSize, но ждет не дольше linger с момента получения первого фильма.
+     */
+    private void collect(List<Long> batch, int batchSize) throws InterruptedException {
+        final long deadline = System.nanoTime() + properties.getLinger().toNanos();
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            final long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            final Long next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<Long> batch) {
+        try {
+            // фильм, измененный несколько раз за пачку, читается один раз
+            movieSearchService.reindex(new LinkedHashSet<>(batch));
+            movieSearchService.refresh();
+            log.debug("Переиндексирована пачка фильмов: {}", batch.size());
+        } catch (RuntimeException e) {
+            log.error("Не удалось переиндексировать пачку фильмов: {}", batch.size(), e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.springpractice.task1.listener;
+
+import com.example.springpractice.task1.domain.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Обработчик событий outbox определенного типа.
+ * Вызывается ретранслятором внутри его транзакции: изменения обработчика фиксируются вместе с удалением событий,
+ * поэтому повторная доставка возможна только при ошибке.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public interface OutboxEventHandler {
+
+    /**
+     * Тип событий, которые обрабатывает обработчик.
+     */
+    String eventType();
+
+    void handle(List<OutboxEvent> events);
+}
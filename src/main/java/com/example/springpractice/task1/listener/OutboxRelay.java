@@ -0,0 +1,150 @@
+package com.example.springpractice.task1.listener;
+
+import com.example.springpractice.task1.conf.OutboxProperties;
+import com.example.springpractice.task1.domain.OutboxEvent;
+import com.example.springpractice.task1.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ретранслятор событий outbox.
+ * С заданным интервалом захватывает пачку событий (SELECT ... FOR UPDATE SKIP LOCKED), передает их обработчикам
+ * по типу и удаляет доставленные события - все в одной транзакции. Несколько экземпляров приложения
+ * разбирают таблицу параллельно, не забирая одни и те же строки.
+ * <p>
+ * Если обработчик упал, транзакция пачки откатывается, и события пачки доставляются по одному, каждое в своей
+ * транзакции: так одно негодное событие не мешает остальным, а попытка доставки засчитывается только событию,
+ * обработчик которого упал. После {@link OutboxProperties#getMaxAttempts()} попыток событие помечается FAILED.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "movie.outbox", name = "enabled", havingValue = "true")
+public class OutboxRelay implements SchedulingConfigurer {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, OutboxEventHandler> handlers;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxProperties properties,
+                       PlatformTransactionManager transactionManager,
+                       List<OutboxEventHandler> handlers) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.handlers = handlers.stream().collect(Collectors.toMap(OutboxEventHandler::eventType, Function.identity()));
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::relay, properties.getPollInterval());
+    }
+
+    /**
+     * Доставка накопившихся событий: пачки забираются, пока таблица не опустеет.
+     *
+     * @return количество доставленных событий
+     */
+    public int relay() {
+        int delivered = 0;
+        int claimed;
+        do {
+            final BatchResult result = transactionTemplate.execute(this::relayBatch);
+            if (result.error() != null) {
+                log.warn("Пачка событий outbox не доставлена, доставляем по одному: {}", result.claimedIds().size(),
+                        result.error());
+                return delivered + relayOneByOne(result.claimedIds());
+            }
+            claimed = result.claimedIds().size();
+            delivered += claimed;
+        } while (claimed == properties.getBatchSize());
+        return delivered;
+    }
+
+    private BatchResult relayBatch(TransactionStatus status) {
+        final List<OutboxEvent> batch = outboxEventRepository.claim(OutboxEvent.Status.NEW,
+                PageRequest.of(0, properties.getBatchSize()));
+        final List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+        if (batch.isEmpty()) {
+            return new BatchResult(ids, null);
+        }
+        final Map<String, List<OutboxEvent>> byType = batch.stream()
+                .collect(Collectors.groupingBy(OutboxEvent::getEventType, LinkedHashMap::new, Collectors.toList()));
+        try {
+            byType.forEach((type, events) -> handler(type).handle(events));
+        } catch (RuntimeException e) {
+            status.setRollbackOnly();
+            return new BatchResult(ids, e);
+        }
+        outboxEventRepository.deleteByIds(ids);
+        return new BatchResult(ids, null);
+    }
+
+    /**
+     * @return количество доставленных событий
+     */
+    private int relayOneByOne(List<Long> ids) {
+        int delivered = 0;
+        for (Long id : ids) {
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> relayOne(id)))) {
+                    delivered++;
+                }
+            } catch (RuntimeException e) {
+                registerFailedAttempt(id, e);
+            }
+        }
+        return delivered;
+    }
+
+    private boolean relayOne(Long id) {
+        final Optional<OutboxEvent> event = outboxEventRepository.claimById(id, OutboxEvent.Status.NEW);
+        if (event.isEmpty()) {
+            return false;
+        }
+        handler(event.get().getEventType()).handle(List.of(event.get()));
+        outboxEventRepository.deleteByIds(List.of(id));
+        return true;
+    }
+
+    private OutboxEventHandler handler(String eventType) {
+        final OutboxEventHandler handler = handlers.get(eventType);
+        if (handler == null) {
+            throw new IllegalStateException("Нет обработчика для событий типа " + eventType);
+        }
+        return handler;
+    }
+
+    private void registerFailedAttempt(Long id, RuntimeException error) {
+        log.error("Ошибка доставки события outbox {}", id, error);
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.findById(id).ifPresent(event -> {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setLastError(StringUtils.truncate(String.valueOf(error.getMessage()), 1000));
+            if (event.getAttempts() >= properties.getMaxAttempts()) {
+                event.setStatus(OutboxEvent.Status.FAILED);
+            }
+        }));
+    }
+
+    private record BatchResult(List<Long> claimedIds, RuntimeException error) {
+    }
+}
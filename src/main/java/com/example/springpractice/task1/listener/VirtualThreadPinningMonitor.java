@@ -0,0 +1,96 @@
+package com.example.springpractice.task1.listener;
+
+import com.example.springpractice.task1.conf.VirtualThreadProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Обнаружение закрепления виртуальных потоков (pinning) по событию JFR jdk.VirtualThreadPinned.
+ * Закрепленный поток блокирует несущий поток - например, при ожидании ввода-вывода внутри synchronized
+ * в драйвере БД или пуле соединений, и тогда виртуальные потоки перестают масштабироваться.
+ * <p>
+ * Каждое закрепление дольше порога записывается в таймер movie.virtual.pinned с тегом transactional -
+ * произошло ли оно внутри транзакционного метода, и логируется с верхними кадрами стека.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Component
+@Slf4j
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String TRANSACTION_PACKAGE = "org.springframework.transaction.";
+
+    private final VirtualThreadProperties properties;
+    private final Timer transactionalPinned;
+    private final Timer otherPinned;
+
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(VirtualThreadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.transactionalPinned = pinnedTimer(meterRegistry, true);
+        this.otherPinned = pinnedTimer(meterRegistry, false);
+    }
+
+    @Override
+    public void start() {
+        final RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(properties.getPinnedThreshold()).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+    }
+
+    @Override
+    public void stop() {
+        final RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        final List<RecordedFrame> frames = frames(event.getStackTrace());
+        final boolean transactional = frames.stream()
+                .anyMatch(frame -> frame.getMethod().getType().getName().startsWith(TRANSACTION_PACKAGE));
+        (transactional ? transactionalPinned : otherPinned).record(event.getDuration());
+        log.warn("Виртуальный поток закреплен за несущим на {} мс, транзакция: {}\n{}",
+                event.getDuration().toMillis(), transactional,
+                frames.stream().limit(properties.getStackDepth())
+                        .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                                + ":" + frame.getLineNumber())
+                        .collect(Collectors.joining("\n")));
+    }
+
+    private static List<RecordedFrame> frames(RecordedStackTrace stackTrace) {
+        return (stackTrace != null ? stackTrace.getFrames() : List.of());
+    }
+
+    private static Timer pinnedTimer(MeterRegistry registry, boolean transactional) {
+        return Timer.builder("movie.virtual.pinned")
+                .description("Закрепления виртуальных потоков за несущими потоками")
+                .tag("transactional", String.valueOf(transactional))
+                .register(registry);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.springpractice.task1.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.interceptor.TransactionAttributeSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Метрика вызовов транзакционных методов movie.tx.method - время вызова вместе с фиксацией или откатом.
+ * Теги: method, propagation (из аннотации), joined - присоединился ли метод к уже открытой транзакции,
+ * outcome - commit или rollback по правилам отката метода, exception - исключение, вышедшее из метода.
+ * <p>
+ * Выполняется снаружи транзакционного перехватчика, поэтому видит исключение, из-за которого транзакция откатилась,
+ * а также проверяемые исключения, при которых транзакция фиксируется.
+ * <p>
+ * Таймеры успешных вызовов кэшируются по методу: на каждый вызов не строятся теги и не ищется таймер в реестре.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public class TransactionMethodMetricsInterceptor implements MethodInterceptor {
+
+    private static final Map<Integer, String> PROPAGATIONS = Arrays.stream(Propagation.values())
+            .collect(Collectors.toMap(Propagation::value, Propagation::name));
+
+    private final TransactionAttributeSource transactionAttributeSource;
+    private final Supplier<MeterRegistry> registry;
+    private final Map<TimerKey, Timer> successTimers = new ConcurrentHashMap<>();
+
+    /**
+     * @param registry реестр метрик запрашивается при первом вызове: перехватчик создается вместе с инфраструктурой
+     *                 AOP, и раннее создание реестра лишило бы его привязки MeterBinder (метрики JVM, пулов, кэшей).
+     */
+    public TransactionMethodMetricsInterceptor(TransactionAttributeSource transactionAttributeSource,
+                                               Supplier<MeterRegistry> registry) {
+        this.transactionAttributeSource = transactionAttributeSource;
+        this.registry = registry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        final Class<?> targetClass = (invocation.getThis() != null ? AopUtils.getTargetClass(invocation.getThis()) : null);
+        final TransactionAttribute attribute =
+                transactionAttributeSource.getTransactionAttribute(invocation.getMethod(), targetClass);
+        if (attribute == null) {
+            return invocation.proceed();
+        }
+        final boolean joined = TransactionSynchronizationManager.isActualTransactionActive()
+                && joinsExisting(attribute.getPropagationBehavior());
+        final long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            return invocation.proceed();
+        } catch (Throwable ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            final Timer timer = (failure == null
+                    ? successTimers.computeIfAbsent(new TimerKey(invocation.getMethod(), targetClass, joined),
+                            key -> timer(invocation, targetClass, attribute, joined, null))
+                    : timer(invocation, targetClass, attribute, joined, failure));
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(MethodInvocation invocation, Class<?> targetClass, TransactionAttribute attribute,
+                        boolean joined, Throwable failure) {
+        return Timer.builder("movie.tx.method")
+                .description("Вызовы транзакционных методов")
+                .tags(Tags.of(
+                        "method", methodName(invocation, targetClass),
+                        "propagation", PROPAGATIONS.getOrDefault(attribute.getPropagationBehavior(), "UNKNOWN"),
+                        "joined", String.valueOf(joined),
+                        "outcome", (failure != null && attribute.rollbackOn(failure) ? "rollback" : "commit"),
+                        "exception", (failure == null ? "none" : failure.getClass().getSimpleName())))
+                .register(registry.get());
+    }
+
+    private static boolean joinsExisting(int propagation) {
+        return propagation == Propagation.REQUIRED.value()
+                || propagation == Propagation.SUPPORTS.value()
+                || propagation == Propagation.MANDATORY.value();
+    }
+
+    private static String methodName(MethodInvocation invocation, Class<?> targetClass) {
+        final Class<?> type = (targetClass != null ? targetClass : invocation.getMethod().getDeclaringClass());
+        return ClassUtils.getShortName(type) + "." + invocation.getMethod().getName();
+    }
+
+    private record TimerKey(Method method, Class<?> targetClass, boolean joined) {
+    }
+}
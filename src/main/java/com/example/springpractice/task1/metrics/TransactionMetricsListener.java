@@ -0,0 +1,99 @@
+package com.example.springpractice.task1.metrics;
+
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Метрики физических транзакций менеджера транзакций - от начала до фиксации или отката.
+ * Для JPA это время, на которое транзакция удерживает соединение из пула.
+ * <ul>
+ *     <li>movie.tx.connection.hold - таймер с тегами name (имя транзакции - метод, начавший ее), kind, outcome,
+ *     exception (ошибка фиксации или отката) и read_only;</li>
+ *     <li>movie.tx.active - активные транзакции и длительность самой долгой из них.</li>
+ * </ul>
+ * kind: required - новая транзакция верхнего уровня, requires_new - новая транзакция при приостановленной внешней,
+ * nested - точка сохранения внутри внешней транзакции. Присоединение к существующей транзакции
+ * новой транзакцией не является и здесь не учитывается.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public class TransactionMetricsListener implements TransactionExecutionListener {
+
+    private static final String PROGRAMMATIC = "programmatic";
+
+    private final MeterRegistry registry;
+    private final LongTaskTimer active;
+    private final Map<TransactionExecution, Execution> executions = new ConcurrentHashMap<>();
+
+    public TransactionMetricsListener(MeterRegistry registry) {
+        this.registry = registry;
+        this.active = LongTaskTimer.builder("movie.tx.active")
+                .description("Транзакции, начатые и еще не завершенные")
+                .register(registry);
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, @Nullable Throwable beginFailure) {
+        if (beginFailure != null) {
+            return;
+        }
+        executions.put(transaction, new Execution(kind(transaction), Timer.start(registry), active.start()));
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, @Nullable Throwable commitFailure) {
+        complete(transaction, (commitFailure == null ? "commit" : "rollback"), commitFailure);
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, @Nullable Throwable rollbackFailure) {
+        complete(transaction, "rollback", rollbackFailure);
+    }
+
+    private void complete(TransactionExecution transaction, String outcome, @Nullable Throwable failure) {
+        // при ошибке фиксации менеджер откатывает транзакцию - засчитывается первое завершение
+        final Execution execution = executions.remove(transaction);
+        if (execution == null) {
+            return;
+        }
+        execution.active().stop();
+        execution.hold().stop(Timer.builder("movie.tx.connection.hold")
+                .description("Время от начала до завершения транзакции")
+                .tags(Tags.of(
+                        "name", name(transaction),
+                        "kind", execution.kind(),
+                        "outcome", outcome,
+                        "exception", (failure == null ? "none" : failure.getClass().getSimpleName()),
+                        "read_only", String.valueOf(transaction.isReadOnly())))
+                .register(registry));
+    }
+
+    private static String kind(TransactionExecution transaction) {
+        if (transaction.isNested()) {
+            return "nested";
+        }
+        if (transaction instanceof DefaultTransactionStatus status && status.getSuspendedResources() != null) {
+            return "requires_new";
+        }
+        return "required";
+    }
+
+    private static String name(TransactionExecution transaction) {
+        final String name = transaction.getTransactionName();
+        return (StringUtils.hasText(name) ? name : PROGRAMMATIC);
+    }
+
+    private record Execution(String kind, Timer.Sample hold, LongTaskTimer.Sample active) {
+    }
+}
@@ -1,7 +1,14 @@
 package com.example.springpractice.task1.repository;
 
 import com.example.springpractice.task1.domain.Author;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Сервис для авторов.
@@ -10,4 +17,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * @since 2023.12.02
  */
 public interface AuthorRepository extends JpaRepository<Author, Long> {
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Optional<Author> findByName(String name);
+
+    List<Author> findByNameIn(Collection<String> names);
 }
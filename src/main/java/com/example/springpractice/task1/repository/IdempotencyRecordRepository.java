@@ -0,0 +1,32 @@
+package com.example.springpractice.task1.repository;
+
+import com.example.springpractice.task1.domain.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Репозиторий ответов на запросы с ключом идемпотентности.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    Optional<IdempotencyRecord> findByKeyAndCreatedAtAfter(String key, Instant createdAfter);
+
+    /**
+     * Удаление устаревших ответов одним DELETE.
+     *
+     * @return количество удаленных ответов
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :createdBefore")
+    int deleteExpired(@Param("createdBefore") Instant createdBefore);
+}
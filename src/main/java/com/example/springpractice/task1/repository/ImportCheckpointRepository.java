@@ -0,0 +1,17 @@
+package com.example.springpractice.task1.repository;
+
+import com.example.springpractice.task1.domain.ImportCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+/**
+ * Репозиторий отметок загруженных пачек импорта.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public interface ImportCheckpointRepository extends JpaRepository<ImportCheckpoint, Long> {
+
+    List<ImportCheckpoint> findByImportId(String importId);
+}
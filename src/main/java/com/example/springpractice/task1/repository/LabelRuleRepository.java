@@ -0,0 +1,17 @@
+package com.example.springpractice.task1.repository;
+
+import com.example.springpractice.task1.domain.LabelRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+/**
+ * Репозиторий правил присвоения лейблов.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public interface LabelRuleRepository extends JpaRepository<LabelRule, Long> {
+
+    List<LabelRule> findByEnabledTrueOrderByIdAsc();
+}
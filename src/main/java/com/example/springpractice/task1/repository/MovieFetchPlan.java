@@ -0,0 +1,32 @@
+package com.example.springpractice.task1.repository;
+
+import com.example.springpractice.task1.domain.Movie;
+
+/**
+ * План выборки фильмов.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public enum MovieFetchPlan {
+
+    /**
+     * Только поля фильма, авторы не загружаются.
+     */
+    SUMMARY(Movie.SUMMARY_GRAPH),
+
+    /**
+     * Фильм вместе с авторами одним запросом.
+     */
+    WITH_AUTHORS(Movie.WITH_AUTHORS_GRAPH);
+
+    private final String graphName;
+
+    MovieFetchPlan(String graphName) {
+        this.graphName = graphName;
+    }
+
+    public String getGraphName() {
+        return graphName;
+    }
+}
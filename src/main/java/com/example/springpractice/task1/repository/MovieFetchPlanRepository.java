@@ -0,0 +1,20 @@
+package com.example.springpractice.task1.repository;
+
+import com.example.springpractice.task1.domain.Movie;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Выборка фильмов с явно заданным планом загрузки.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public interface MovieFetchPlanRepository {
+
+    /**
+     * Загрузка фильмов по идентификаторам одним запросом с указанным планом выборки.
+     */
+    List<Movie> findAllById(Collection<Long> ids, MovieFetchPlan fetchPlan);
+}
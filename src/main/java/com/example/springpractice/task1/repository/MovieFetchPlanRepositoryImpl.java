@@ -0,0 +1,35 @@
+package com.example.springpractice.task1.repository;
+
+import com.example.springpractice.task1.domain.Movie;
+import jakarta.persistence.EntityManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Реализация выборки фильмов с планом загрузки через fetch graph.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+class MovieFetchPlanRepositoryImpl implements MovieFetchPlanRepository {
+
+    private static final String FETCH_GRAPH_HINT = "jakarta.persistence.fetchgraph";
+
+    private final EntityManager entityManager;
+
+    MovieFetchPlanRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Movie> findAllById(Collection<Long> ids, MovieFetchPlan fetchPlan) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery("select m from Movie m where m.id in :ids", Movie.class)
+                .setParameter("ids", ids)
+                .setHint(FETCH_GRAPH_HINT, entityManager.getEntityGraph(fetchPlan.getGraphName()))
+                .getResultList();
+    }
+}
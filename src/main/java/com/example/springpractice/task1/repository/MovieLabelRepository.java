@@ -0,0 +1,27 @@
+package com.example.springpractice.task1.repository;
+
+import java.util.Collection;
+
+/**
+ * Присвоение лейбла без загрузки сущностей фильмов, с вытеснением из кэша второго уровня только измененных фильмов.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public interface MovieLabelRepository {
+
+    /**
+     * Присвоение лейбла группе фильмов одним UPDATE без загрузки сущностей.
+     *
+     * @return количество обновленных фильмов
+     */
+    int updateLabel(Collection<Long> ids, String label);
+
+    /**
+     * Присвоение лейбла фильму, если его версия не изменилась с момента чтения: один UPDATE по первичному ключу
+     * без загрузки сущности и без блокировки строки на время чтения.
+     *
+     * @return 1, если лейбл присвоен, 0 - если фильм успели изменить
+     */
+    int updateLabelIfVersion(Long id, Long version, String label);
+}
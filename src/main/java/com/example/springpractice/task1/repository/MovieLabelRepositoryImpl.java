@@ -0,0 +1,87 @@
+package com.example.springpractice.task1.repository;
+
+import com.example.springpractice.task1.domain.Movie;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionImplementor;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * UPDATE выполняется через JDBC-соединение сессии, а не JPQL: массовый JPQL UPDATE очищает весь регион movie
+ * в кэше второго уровня, и после каждой смены лейбла все фильмы снова читаются из базы.
+ * Здесь из региона вытесняются только измененные фильмы - до UPDATE и еще раз после завершения транзакции,
+ * как это делает сам Hibernate для массовых операций. Метки таблицы movie в кэше запросов обновляются:
+ * кэш запросов хранит колонки результата, в том числе лейбл, - это одна запись, а не очистка региона.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+class MovieLabelRepositoryImpl implements MovieLabelRepository {
+
+    private static final String[] QUERY_SPACES = {"movie"};
+
+    private final EntityManager entityManager;
+
+    MovieLabelRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int updateLabel(Collection<Long> ids, String label) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        final String sql = "update movie set label = ?, version = version + 1 where id in ("
+                + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+        return update(ids, sql, statement -> {
+            int index = 1;
+            statement.setString(index++, label);
+            for (Long id : ids) {
+                statement.setLong(index++, id);
+            }
+        });
+    }
+
+    @Override
+    public int updateLabelIfVersion(Long id, Long version, String label) {
+        return update(List.of(id), "update movie set label = ?, version = version + 1 where id = ? and version = ?",
+                statement -> {
+                    statement.setString(1, label);
+                    statement.setLong(2, id);
+                    statement.setLong(3, version);
+                });
+    }
+
+    private int update(Collection<Long> ids, String sql, Parameters parameters) {
+        // изменения сессии должны попасть в базу раньше UPDATE, как перед JPQL-запросом
+        entityManager.flush();
+        final SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        final TimestampsCache timestamps = session.getFactory().getCache().getTimestampsCache();
+        final Cache cache = entityManager.getEntityManagerFactory().getCache();
+        ids.forEach(id -> cache.evict(Movie.class, id));
+        timestamps.preInvalidate(QUERY_SPACES, session);
+        // чтение, начатое до фиксации, могло вернуть в кэш прежнюю строку
+        session.getActionQueue().registerProcess((success, completed) -> {
+            ids.forEach(id -> cache.evict(Movie.class, id));
+            timestamps.invalidate(QUERY_SPACES, completed);
+        });
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                parameters.set(statement);
+                return statement.executeUpdate();
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Parameters {
+
+        void set(PreparedStatement statement) throws SQLException;
+    }
+}
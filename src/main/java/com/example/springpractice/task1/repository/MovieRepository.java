@@ -1,7 +1,24 @@
 package com.example.springpractice.task1.repository;
 
 import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.dto.MovieAuthorView;
+import com.example.springpractice.task1.dto.MovieExportRow;
+import com.example.springpractice.task1.dto.MovieSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для фильмов.
@@ -9,5 +26,57 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * @author Klim Ross
  * @since 2023.12.02
  */
-public interface MovieRepository extends JpaRepository<Movie, Long> {
+public interface MovieRepository extends JpaRepository<Movie, Long>, JpaSpecificationExecutor<Movie>,
+        MovieFetchPlanRepository, MovieLabelRepository {
+
+    String EXPORT_FETCH_SIZE = "500";
+
+    /**
+     * Фильм вместе с авторами одним запросом.
+     */
+    @EntityGraph(Movie.WITH_AUTHORS_GRAPH)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Optional<Movie> findWithAuthorsById(Long id);
+
+    /**
+     * Страница фильмов без авторов - выбираются только колонки проекции, без запроса количества.
+     */
+    Slice<MovieSummary> findSummariesBy(Pageable pageable);
+
+    /**
+     * Фильмы по идентификаторам без авторов - только колонки проекции.
+     */
+    List<MovieSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    /**
+     * Авторы для набора фильмов одним запросом, без загрузки сущностей фильмов.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new com.example.springpractice.task1.dto.MovieAuthorView(m.id, a.id, a.name) "
+            + "from Movie m join m.authors a where m.id in :movieIds")
+    List<MovieAuthorView> findAuthorViews(@Param("movieIds") Collection<Long> movieIds);
+
+    /**
+     * Весь каталог для выгрузки: фильмы по возрастанию id, строка на каждого автора фильма.
+     * Строки читаются курсором по EXPORT_FETCH_SIZE, поток нужно закрыть и читать внутри транзакции.
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.example.springpractice.task1.dto.MovieExportRow(m.id, m.name, m.label, m.createdAt, a.name) "
+            + "from Movie m left join m.authors a order by m.id, a.id")
+    Stream<MovieExportRow> streamExportRows();
+
+    /**
+     * Текущая версия фильма без загрузки сущности и авторов.
+     */
+    @Query("select m.version from Movie m where m.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Текущий лейбл фильма без загрузки сущности и авторов. Пустой результат - фильма нет или лейбл не присвоен.
+     */
+    @Query("select m.label from Movie m where m.id = :id")
+    Optional<String> findLabelById(@Param("id") Long id);
 }
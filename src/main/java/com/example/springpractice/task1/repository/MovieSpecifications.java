@@ -0,0 +1,51 @@
+package com.example.springpractice.task1.repository;
+
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.dto.MovieCursor;
+import com.example.springpractice.task1.dto.MovieFilter;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+/**
+ * Условия выборки фильмов для списка.
+ * Условия добавляются только для заданных фильтров, чтобы запрос мог использовать составные индексы фильма.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public final class MovieSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private MovieSpecifications() {
+    }
+
+    public static Specification<Movie> matching(MovieFilter filter) {
+        Specification<Movie> specification = Specification.where(null);
+        if (StringUtils.hasText(filter.namePrefix())) {
+            specification = specification.and(nameStartsWith(filter.namePrefix()));
+        }
+        if (StringUtils.hasText(filter.label())) {
+            specification = specification.and(hasLabel(filter.label()));
+        }
+        return specification;
+    }
+
+    public static Specification<Movie> nameStartsWith(String prefix) {
+        final String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(root.get("name"), pattern, LIKE_ESCAPE);
+    }
+
+    public static Specification<Movie> hasLabel(String label) {
+        return (root, query, cb) -> cb.equal(root.get("label"), label);
+    }
+
+    /**
+     * Фильмы, идущие после позиции при сортировке по (createdAt desc, id desc).
+     */
+    public static Specification<Movie> after(MovieCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), cursor.createdAt()),
+                cb.and(cb.equal(root.get("createdAt"), cursor.createdAt()), cb.lessThan(root.get("id"), cursor.id())));
+    }
+}
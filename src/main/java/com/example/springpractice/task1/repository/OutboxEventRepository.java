@@ -0,0 +1,48 @@
+package com.example.springpractice.task1.repository;
+
+import com.example.springpractice.task1.domain.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторий для событий outbox.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Захват пачки событий с блокировкой строк до конца транзакции.
+     * Таймаут блокировки -2 - это SKIP LOCKED: строки, захваченные другим экземпляром ретранслятора, пропускаются.
+     * На диалектах без поддержки SKIP LOCKED (например, H2) выполняется обычный SELECT ... FOR UPDATE.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEvent e where e.status = :status order by e.id")
+    List<OutboxEvent> claim(@Param("status") OutboxEvent.Status status, Pageable pageable);
+
+    /**
+     * Захват одного события для доставки по одному, с той же блокировкой, что и {@link #claim}.
+     * Пусто, если событие уже доставлено, помечено FAILED или захвачено другим экземпляром.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEvent e where e.id = :id and e.status = :status")
+    Optional<OutboxEvent> claimById(@Param("id") Long id, @Param("status") OutboxEvent.Status status);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
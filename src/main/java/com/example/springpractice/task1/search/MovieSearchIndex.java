@@ -0,0 +1,444 @@
+package com.example.springpractice.task1.search;
+
+import com.example.springpractice.task1.dto.MovieExport;
+import com.example.springpractice.task1.dto.MovieSearchHit;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.EdgeNGramTokenFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.CodecReader;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SlowCodecReaderWrapper;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Полнотекстовый индекс фильмов на Lucene: инвертированный индекс слов названий и имен авторов.
+ * Документ фильма хранит название, лейбл и авторов, поэтому результаты поиска не требуют запросов к БД.
+ * <p>
+ * Слова приводятся к нижнему регистру, диакритика снимается (Amélie - amelie). Начала слов (от
+ * {@value #MIN_PREFIX_LENGTH} до {@value #MAX_PREFIX_LENGTH} букв) индексируются отдельными термами: поиск по началу
+ * слова - это поиск терма, время которого не зависит от размера словаря. Начала из одной буквы не индексируются:
+ * под такой терм попадает заметная доля каталога, и поиск по нему стоит как перебор.
+ * <p>
+ * Изменения становятся видны поиску после {@link #refresh()} (near-real-time: без записи индекса на диск),
+ * а на диске фиксируются {@link #commit()}. Поиск читает снимок индекса и не ждет записи.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public class MovieSearchIndex implements Closeable {
+
+    static final int MIN_PREFIX_LENGTH = 2;
+    static final int MAX_PREFIX_LENGTH = 20;
+
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String NAME_PREFIX = "name_prefix";
+    private static final String AUTHOR = "author";
+    private static final String AUTHOR_PREFIX = "author_prefix";
+    private static final String LABEL = "label";
+
+    private final Directory directory;
+    private final Analyzer analyzer;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    /**
+     * Перестроение держит блокировку записи: пока индекс наполовину пуст, новые снимки поиску не открываются
+     * и на диске не фиксируются - после падения посреди перестроения на диске остается прежний индекс.
+     */
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    /**
+     * Изменения в записи неполные (идет перестроение или не удалось восстановить индекс после упавшего):
+     * они не открываются поиску и не фиксируются.
+     */
+    private volatile boolean incomplete;
+    /**
+     * Фильмы, проиндексированные или удаленные во время перестроения, null - перестроение не идет.
+     */
+    private Set<Long> changedDuringRebuild;
+    private final Object changesMonitor = new Object();
+
+    private MovieSearchIndex(Directory directory, Analyzer analyzer, IndexWriter writer) throws IOException {
+        this.directory = directory;
+        this.analyzer = analyzer;
+        this.writer = writer;
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * Открывает индекс в каталоге, создавая его при необходимости.
+     */
+    public static MovieSearchIndex open(Path path) throws IOException {
+        Files.createDirectories(path);
+        final Directory directory = FSDirectory.open(path);
+        final Analyzer words = new MovieAnalyzer(false);
+        final Analyzer prefixes = new MovieAnalyzer(true);
+        final Analyzer analyzer = new PerFieldAnalyzerWrapper(words, Map.of(NAME_PREFIX, prefixes, AUTHOR_PREFIX, prefixes));
+        try {
+            return new MovieSearchIndex(directory, analyzer, new IndexWriter(directory, new IndexWriterConfig(analyzer)));
+        } catch (IOException | RuntimeException e) {
+            analyzer.close();
+            directory.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Добавляет или заменяет документ фильма.
+     */
+    public void index(MovieExport movie) {
+        recordChange(movie.id());
+        write(movie);
+    }
+
+    /**
+     * Удаляет документ фильма, если он есть.
+     */
+    public void delete(Long movieId) {
+        recordChange(movieId);
+        erase(movieId);
+    }
+
+    /**
+     * Открывает поиску новый снимок с изменениями, сделанными до вызова.
+     * Не ждет: во время перестроения и параллельного обновления снимка ничего не делает.
+     */
+    public void refresh() {
+        if (!rebuildLock.readLock().tryLock()) {
+            return;
+        }
+        try {
+            if (incomplete) {
+                return;
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Фиксирует изменения на диске, если они есть.
+     * Во время перестроения ничего не делает: перестроение само фиксирует индекс, когда он построен целиком.
+     */
+    public void commit() {
+        if (!rebuildLock.readLock().tryLock()) {
+            return;
+        }
+        try {
+            if (!incomplete && writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Строит индекс заново. До завершения поиск видит прежний снимок.
+     * Каталог читается одним снимком, поэтому фильмы, проиндексированные во время перестроения, после него
+     * перечитываются через loader: более старая строка каталога не затирает их.
+     * Если перестроение упало, восстанавливается индекс, зафиксированный перед ним, с изменениями, сделанными
+     * во время перестроения, - обновления поиска продолжаются.
+     *
+     * @param source передает обработчику все фильмы каталога.
+     * @param loader текущее состояние фильмов по идентификаторам; отсутствующие в результате удаляются из индекса.
+     * @return количество фильмов в индексе
+     */
+    public long rebuild(Consumer<Consumer<MovieExport>> source, Function<Collection<Long>, List<MovieExport>> loader) {
+        rebuildLock.writeLock().lock();
+        try {
+            // откат упавшего перестроения вернет индекс к этой фиксации
+            writer.commit();
+            synchronized (changesMonitor) {
+                changedDuringRebuild = new HashSet<>();
+            }
+            incomplete = true;
+            try {
+                writer.deleteAll();
+                source.accept(this::write);
+                for (Set<Long> changes = takeChanges(); !changes.isEmpty(); changes = takeChanges()) {
+                    apply(changes, loader.apply(changes));
+                }
+                writer.commit();
+            } catch (IOException | RuntimeException e) {
+                restore(loader, e);
+                throw e;
+            }
+            incomplete = false;
+            searcherManager.maybeRefreshBlocking();
+            return size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            synchronized (changesMonitor) {
+                changedDuringRebuild = null;
+            }
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Количество фильмов в текущем снимке.
+     */
+    public int size() {
+        try {
+            final IndexSearcher searcher = searcherManager.acquire();
+            try {
+                return searcher.getIndexReader().numDocs();
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Фильмы, в названии которых есть все слова text и у которых есть автор со всеми словами author.
+     * Пустые условия не учитываются; если пусты оба - результат пуст.
+     * В режиме {@link MovieSearchMode#PREFIX} слова короче {@value #MIN_PREFIX_LENGTH} букв ищутся как целые слова.
+     *
+     * @throws IllegalArgumentException если в режиме PREFIX все слова запроса короче {@value #MIN_PREFIX_LENGTH} букв
+     *
+     * @param limit максимальное количество фильмов, по убыванию релевантности.
+     */
+    public List<MovieSearchHit> search(String text, String author, MovieSearchMode mode, int limit) {
+        final BooleanQuery.Builder query = new BooleanQuery.Builder();
+        final int longestWord = Math.max(addWords(query, NAME, NAME_PREFIX, text, mode),
+                addWords(query, AUTHOR, AUTHOR_PREFIX, author, mode));
+        if (longestWord == 0) {
+            return List.of();
+        }
+        if (mode == MovieSearchMode.PREFIX && longestWord < MIN_PREFIX_LENGTH) {
+            throw new IllegalArgumentException("Для поиска по началу слова нужно хотя бы одно слово от "
+                    + MIN_PREFIX_LENGTH + " букв");
+        }
+        try {
+            final IndexSearcher searcher = searcherManager.acquire();
+            try {
+                final TopDocs top = searcher.search(query.build(), limit);
+                final StoredFields storedFields = searcher.storedFields();
+                final List<MovieSearchHit> hits = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc scoreDoc : top.scoreDocs) {
+                    final Document document = storedFields.document(scoreDoc.doc);
+                    hits.add(new MovieSearchHit(Long.valueOf(document.get(ID)), document.get(NAME), document.get(LABEL),
+                            List.of(document.getValues(AUTHOR))));
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Закрывает индекс, фиксируя изменения. Если перестроение идет или упало, незафиксированные изменения
+     * отбрасываются: на диске остается прежний индекс, а идущее перестроение завершается ошибкой.
+     */
+    @Override
+    public void close() throws IOException {
+        boolean locked = false;
+        try {
+            locked = rebuildLock.writeLock().tryLock(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try (directory; analyzer; writer; searcherManager) {
+            // закрываются в обратном порядке: снимки поиска, запись с фиксацией изменений, каталог
+            if (!locked || incomplete) {
+                writer.rollback();
+            }
+        } finally {
+            if (locked) {
+                rebuildLock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * @return длина самого длинного слова, 0 - если слов нет
+     */
+    private void write(MovieExport movie) {
+        try {
+            writer.updateDocument(new Term(ID, movie.id().toString()), document(movie));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void erase(Long movieId) {
+        try {
+            writer.deleteDocuments(new Term(ID, movieId.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void recordChange(Long movieId) {
+        synchronized (changesMonitor) {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(movieId);
+            }
+        }
+    }
+
+    /**
+     * Забирает накопленные изменения. Если их нет, запись изменений прекращается - под той же блокировкой,
+     * чтобы изменение не попало между проверкой и остановкой.
+     */
+    private Set<Long> takeChanges() {
+        synchronized (changesMonitor) {
+            final Set<Long> changes = changedDuringRebuild;
+            changedDuringRebuild = changes.isEmpty() ? null : new HashSet<>();
+            return changes;
+        }
+    }
+
+    private void apply(Collection<Long> movieIds, List<MovieExport> movies) {
+        final Set<Long> missing = new HashSet<>(movieIds);
+        for (MovieExport movie : movies) {
+            write(movie);
+            missing.remove(movie.id());
+        }
+        missing.forEach(this::erase);
+    }
+
+    /**
+     * Возвращает запись к последней фиксации (сделанной перед перестроением) и повторяет изменения, сделанные
+     * во время перестроения. Ошибки восстановления добавляются к ошибке перестроения.
+     */
+    private void restore(Function<Collection<Long>, List<MovieExport>> loader, Exception failure) {
+        final Set<Long> changes;
+        synchronized (changesMonitor) {
+            changes = changedDuringRebuild == null ? Set.of() : changedDuringRebuild;
+            changedDuringRebuild = null;
+        }
+        try (DirectoryReader committed = DirectoryReader.open(directory)) {
+            final List<CodecReader> segments = new ArrayList<>();
+            for (LeafReaderContext leaf : committed.leaves()) {
+                segments.add(SlowCodecReaderWrapper.wrap(leaf.reader()));
+            }
+            writer.deleteAll();
+            writer.addIndexes(segments.toArray(CodecReader[]::new));
+            incomplete = false;
+        } catch (IOException | RuntimeException e) {
+            // запись осталась неполной: она не открывается поиску и не фиксируется
+            failure.addSuppressed(e);
+            return;
+        }
+        try {
+            if (!changes.isEmpty()) {
+                apply(changes, loader.apply(changes));
+            }
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private int addWords(BooleanQuery.Builder query, String field, String prefixField, String text, MovieSearchMode mode) {
+        if (text == null || text.isBlank()) {
+            return 0;
+        }
+        int longest = 0;
+        try (TokenStream stream = analyzer.tokenStream(field, text)) {
+            final CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                query.add(mode.query(field, prefixField, term.toString()), BooleanClause.Occur.MUST);
+                longest = Math.max(longest, term.length());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return longest;
+    }
+
+    private static Document document(MovieExport movie) {
+        final Document document = new Document();
+        document.add(new StringField(ID, movie.id().toString(), Field.Store.YES));
+        document.add(new TextField(NAME, movie.name(), Field.Store.YES));
+        document.add(new TextField(NAME_PREFIX, movie.name(), Field.Store.NO));
+        if (movie.label() != null) {
+            document.add(new StoredField(LABEL, movie.label()));
+        }
+        for (String author : movie.authors()) {
+            document.add(new TextField(AUTHOR, author, Field.Store.YES));
+            document.add(new TextField(AUTHOR_PREFIX, author, Field.Store.NO));
+        }
+        return document;
+    }
+
+    /**
+     * Слова в нижнем регистре без диакритики; для полей начал слов - еще и все начала каждого слова.
+     */
+    private static final class MovieAnalyzer extends Analyzer {
+
+        private final boolean prefixes;
+
+        private MovieAnalyzer(boolean prefixes) {
+            this.prefixes = prefixes;
+        }
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            final Tokenizer source = new StandardTokenizer();
+            TokenStream stream = new ASCIIFoldingFilter(new LowerCaseFilter(source));
+            if (prefixes) {
+                stream = new EdgeNGramTokenFilter(stream, MIN_PREFIX_LENGTH, MAX_PREFIX_LENGTH, true);
+            }
+            return new TokenStreamComponents(source, stream);
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.springpractice.task1.search;
+
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+
+import java.util.Locale;
+
+/**
+ * Как слово запроса сопоставляется со словами названия или имени автора.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public enum MovieSearchMode {
+
+    /**
+     * Слово запроса - начало слова: поиск по мере ввода.
+     * Начала слов проиндексированы отдельными термами, поэтому это один поиск терма, а не перебор словаря.
+     * Слово короче {@value MovieSearchIndex#MIN_PREFIX_LENGTH} букв ищется как целое слово.
+     */
+    PREFIX {
+        @Override
+        Query query(String field, String prefixField, String word) {
+            if (word.length() < MovieSearchIndex.MIN_PREFIX_LENGTH) {
+                return new TermQuery(new Term(field, word));
+            }
+            return word.length() <= MovieSearchIndex.MAX_PREFIX_LENGTH
+                    ? new TermQuery(new Term(prefixField, word))
+                    : new PrefixQuery(new Term(field, word));
+        }
+    },
+
+    /**
+     * Слово с опечатками: до одной правки в словах до пяти букв и до двух в более длинных.
+     * Первая буква должна совпадать - так перебирается только малая часть словаря.
+     */
+    FUZZY {
+        @Override
+        Query query(String field, String prefixField, String word) {
+            final int maxEdits = word.length() < 3 ? 0 : word.length() < 6 ? 1 : 2;
+            return maxEdits == 0
+                    ? new TermQuery(new Term(field, word))
+                    : new FuzzyQuery(new Term(field, word), maxEdits, 1);
+        }
+    };
+
+    /**
+     * Запрос по одному слову, уже приведенному анализатором к виду терма.
+     *
+     * @param field       поле со словами.
+     * @param prefixField поле с началами слов.
+     */
+    abstract Query query(String field, String prefixField, String word);
+
+    public static MovieSearchMode of(String mode) {
+        try {
+            return valueOf(mode.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Неизвестный режим поиска: " + mode);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.springpractice.task1.service;
+
+import com.example.springpractice.task1.dto.LabelChange;
+import com.example.springpractice.task1.journal.LabelChangeJournal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Аудит смены лейблов. Изменение попадает в {@link LabelChangeJournal} после фиксации транзакции,
+ * в которой оно сделано: откаченные изменения в журнал не пишутся, а в БД аудит не добавляет ни одной записи.
+ * Пользователь и время берутся в момент изменения, в потоке запроса.
+ * <p>
+ * Записи считаются в movie.label.journal.records, ошибки записи - в movie.label.journal.failures.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(prefix = "movie.label.journal", name = "enabled", havingValue = "true")
+public class LabelAuditService {
+
+    private final LabelChangeJournal journal;
+    private final Counter records;
+    private final Counter failures;
+
+    public LabelAuditService(LabelChangeJournal journal, MeterRegistry meterRegistry) {
+        this.journal = journal;
+        this.records = Counter.builder("movie.label.journal.records")
+                .description("Изменения лейблов, записанные в журнал")
+                .register(meterRegistry);
+        this.failures = Counter.builder("movie.label.journal.failures")
+                .description("Изменения лейблов, которые не удалось записать в журнал")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Регистрирует смену лейбла фильма. Внутри транзакции запись откладывается до ее фиксации.
+     */
+    public void labelChanged(long movieId, String oldLabel, String newLabel) {
+        if (Objects.equals(oldLabel, newLabel)) {
+            return;
+        }
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        final LabelChange change = new LabelChange(movieId, oldLabel, newLabel, Instant.now(),
+                authentication == null ? null : authentication.getName());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                append(change);
+            }
+        });
+    }
+
+    /**
+     * История лейблов фильма в порядке изменений.
+     */
+    public List<LabelChange> history(long movieId) {
+        return journal.findByMovieId(movieId);
+    }
+
+    private void append(LabelChange change) {
+        try {
+            journal.append(change);
+            records.increment();
+        } catch (RuntimeException e) {
+            // транзакция уже зафиксирована, изменение лейбла не откатываем
+            failures.increment();
+            log.error("Не удалось записать в журнал смену лейбла фильма {}", change.movieId(), e);
+        }
+    }
+}
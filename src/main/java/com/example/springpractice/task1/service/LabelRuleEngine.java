@@ -0,0 +1,155 @@
+package com.example.springpractice.task1.service;
+
+import com.example.springpractice.task1.conf.LabelRuleProperties;
+import com.example.springpractice.task1.conf.LabelRuleProperties.Rule;
+import com.example.springpractice.task1.domain.Author;
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.repository.LabelRuleRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Движок правил присвоения лейблов.
+ * Правила из настроек или таблицы label_rule собираются в неизменяемый {@link LabelRuleSet}, который читается
+ * без блокировок. Перечитывание собирает новый набор и подменяет ссылку целиком: вычисления, начатые
+ * на старом наборе, доходят до конца на нем же. Если новый набор некорректен, остается прежний.
+ * Правила из настроек при перечитывании заново привязываются из {@link Environment}: так подхватываются
+ * изменившиеся источники свойств, а уже привязанный {@link LabelRuleProperties} остается прежним.
+ * <p>
+ * Срабатывания правил считаются в {@link LongAdder} без конкуренции потоков и публикуются
+ * метрикой movie.label.rule.hits с тегом rule.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Component
+@Slf4j
+public class LabelRuleEngine implements SchedulingConfigurer {
+
+    private static final String PREFIX = "movie.label.rules";
+
+    private final LabelRuleProperties properties;
+    private final Environment environment;
+    private final LabelRuleRepository labelRuleRepository;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, LongAdder> hits = new ConcurrentHashMap<>();
+
+    private volatile LabelRuleSet rules;
+
+    public LabelRuleEngine(LabelRuleProperties properties,
+                           Environment environment,
+                           LabelRuleRepository labelRuleRepository,
+                           MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.environment = environment;
+        this.labelRuleRepository = labelRuleRepository;
+        this.meterRegistry = meterRegistry;
+        // правила из таблицы читаются при первом обращении: при создании бина схема может быть еще не готова
+        if (properties.getSource() == LabelRuleProperties.Source.PROPERTIES) {
+            this.rules = compile(properties, properties.getRules());
+        }
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        if (properties.getReloadInterval() != null) {
+            taskRegistrar.addFixedDelayTask(this::reloadSafely, properties.getReloadInterval());
+        }
+    }
+
+    /**
+     * Текущий набор правил.
+     */
+    public LabelRuleSet rules() {
+        LabelRuleSet current = rules;
+        if (current == null) {
+            synchronized (this) {
+                current = rules;
+                if (current == null) {
+                    current = reload();
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Лейбл для фильма. Авторы учитываются, если они уже загружены - лишних запросов движок не делает.
+     */
+    public String labelFor(Movie movie) {
+        final LabelRuleSet current = rules();
+        final List<Author> authors = movie.getAuthors();
+        if (!current.needsAuthors() || authors == null || !Hibernate.isInitialized(authors)) {
+            return current.labelFor(movie.getName(), null);
+        }
+        return current.labelFor(movie.getName(), authors.stream().map(Author::getName).toList());
+    }
+
+    public boolean isForbidden(String label) {
+        return rules().isForbidden(label);
+    }
+
+    /**
+     * Количество срабатываний правила с момента запуска.
+     */
+    public long hits(String ruleName) {
+        final LongAdder counter = hits.get(ruleName);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * Перечитывание и подмена набора правил.
+     *
+     * @throws IllegalArgumentException если новый набор некорректен - прежний набор остается в силе
+     */
+    public LabelRuleSet reload() {
+        final LabelRuleProperties current = properties.getSource() == LabelRuleProperties.Source.PROPERTIES
+                ? Binder.get(environment).bind(PREFIX, LabelRuleProperties.class).orElseGet(LabelRuleProperties::new)
+                : properties;
+        final List<Rule> definitions = switch (properties.getSource()) {
+            case PROPERTIES -> current.getRules();
+            case DATABASE -> labelRuleRepository.findByEnabledTrueOrderByIdAsc().stream()
+                    .map(rule -> new Rule(rule.getName(), rule.getType(), rule.getMatch(), rule.getLabel()))
+                    .toList();
+        };
+        final LabelRuleSet compiled = compile(current, definitions);
+        rules = compiled;
+        log.info("Правила лейблов перечитаны: {}", definitions.size());
+        return compiled;
+    }
+
+    private void reloadSafely() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.error("Не удалось перечитать правила лейблов, действуют прежние", e);
+        }
+    }
+
+    private LabelRuleSet compile(LabelRuleProperties settings, List<Rule> definitions) {
+        return LabelRuleSet.compile(settings.getDefaultLabel(), settings.getForbidden(), definitions, this::counter);
+    }
+
+    private LongAdder counter(String ruleName) {
+        return hits.computeIfAbsent(ruleName, name -> {
+            final LongAdder adder = new LongAdder();
+            FunctionCounter.builder("movie.label.rule.hits", adder, LongAdder::doubleValue)
+                    .description("Срабатывания правил присвоения лейблов")
+                    .tag("rule", name)
+                    .register(meterRegistry);
+            return adder;
+        });
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.springpractice.task1.service;
+
+import com.example.springpractice.task1.conf.LabelRuleProperties.Rule;
+import com.example.springpractice.task1.conf.LabelRuleProperties.RuleType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Скомпилированный неизменяемый набор правил присвоения лейблов.
+ * Правила проверяются по типам: точное название (поиск в хэш-таблице), затем авторы (поиск в хэш-таблице
+ * по каждому автору), затем регулярные выражения в порядке объявления; иначе - лейбл по умолчанию.
+ * Внутри типа побеждает правило, объявленное первым.
+ * <p>
+ * Набор не меняется после сборки и читается без блокировок из любого числа потоков.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public final class LabelRuleSet {
+
+    /**
+     * Имя счетчика срабатываний лейбла по умолчанию.
+     */
+    public static final String DEFAULT_RULE = "default";
+
+    private final Map<String, CompiledRule> byName;
+    private final Map<String, CompiledRule> byAuthor;
+    private final List<CompiledRule> patterns;
+    private final Set<String> forbidden;
+    private final CompiledRule defaultRule;
+
+    private LabelRuleSet(Map<String, CompiledRule> byName, Map<String, CompiledRule> byAuthor,
+                         List<CompiledRule> patterns, Set<String> forbidden, CompiledRule defaultRule) {
+        this.byName = byName;
+        this.byAuthor = byAuthor;
+        this.patterns = patterns;
+        this.forbidden = forbidden;
+        this.defaultRule = defaultRule;
+    }
+
+    /**
+     * Сборка набора правил. Правила проверяются при сборке: некорректный набор не собирается целиком.
+     *
+     * @param hits счетчик срабатываний по имени правила - счетчики переживают пересборку набора.
+     * @throws IllegalArgumentException если правило некорректно или присваивает запрещенный лейбл
+     */
+    public static LabelRuleSet compile(String defaultLabel, Collection<String> forbiddenLabels, List<Rule> rules,
+                                       Function<String, LongAdder> hits) {
+        final Set<String> forbidden = new HashSet<>(forbiddenLabels);
+        rules.stream()
+                .filter(rule -> rule.type() == RuleType.FORBIDDEN)
+                .forEach(rule -> forbidden.add(rule.match()));
+        final Map<String, CompiledRule> byName = new HashMap<>();
+        final Map<String, CompiledRule> byAuthor = new HashMap<>();
+        final List<CompiledRule> patterns = new ArrayList<>();
+        for (Rule rule : rules) {
+            if (rule.type() == null || rule.match() == null) {
+                throw new IllegalArgumentException("У правила лейбла не задан тип или значение: " + rule);
+            }
+            if (rule.type() == RuleType.FORBIDDEN) {
+                continue;
+            }
+            if (rule.label() == null || forbidden.contains(rule.label())) {
+                throw new IllegalArgumentException("Правило присваивает пустой или запрещенный лейбл: " + rule);
+            }
+            final String name = (rule.name() != null ? rule.name() : rule.type() + ":" + rule.match());
+            final CompiledRule compiled = new CompiledRule(name, rule.label(), compilePattern(rule), hits.apply(name));
+            switch (rule.type()) {
+                case NAME -> byName.putIfAbsent(rule.match(), compiled);
+                case AUTHOR -> byAuthor.putIfAbsent(rule.match(), compiled);
+                case NAME_PATTERN -> patterns.add(compiled);
+                default -> throw new IllegalArgumentException("Неизвестный тип правила: " + rule.type());
+            }
+        }
+        if (defaultLabel == null || forbidden.contains(defaultLabel)) {
+            throw new IllegalArgumentException("Лейбл по умолчанию пуст или запрещен: " + defaultLabel);
+        }
+        return new LabelRuleSet(Map.copyOf(byName), Map.copyOf(byAuthor), List.copyOf(patterns), Set.copyOf(forbidden),
+                new CompiledRule(DEFAULT_RULE, defaultLabel, null, hits.apply(DEFAULT_RULE)));
+    }
+
+    /**
+     * Лейбл для фильма.
+     *
+     * @param authors имена авторов фильма, учитываются, только если есть правила по авторам.
+     */
+    public String labelFor(String movieName, Collection<String> authors) {
+        final CompiledRule rule = match(movieName, authors);
+        rule.hits.increment();
+        return rule.label;
+    }
+
+    public boolean isForbidden(String label) {
+        return forbidden.contains(label);
+    }
+
+    /**
+     * Есть ли правила по авторам - если нет, авторов фильма можно не загружать.
+     */
+    public boolean needsAuthors() {
+        return !byAuthor.isEmpty();
+    }
+
+    /**
+     * Все фильмы получают лейбл по умолчанию - названия и авторов можно не читать.
+     */
+    public boolean isDefaultOnly() {
+        return byName.isEmpty() && byAuthor.isEmpty() && patterns.isEmpty();
+    }
+
+    public String getDefaultLabel() {
+        return defaultRule.label;
+    }
+
+    private CompiledRule match(String movieName, Collection<String> authors) {
+        if (movieName != null) {
+            final CompiledRule exact = byName.get(movieName);
+            if (exact != null) {
+                return exact;
+            }
+        }
+        if (!byAuthor.isEmpty() && authors != null) {
+            for (String author : authors) {
+                final CompiledRule byAuthorRule = byAuthor.get(author);
+                if (byAuthorRule != null) {
+                    return byAuthorRule;
+                }
+            }
+        }
+        if (movieName != null) {
+            for (CompiledRule pattern : patterns) {
+                if (pattern.pattern.matcher(movieName).matches()) {
+                    return pattern;
+                }
+            }
+        }
+        return defaultRule;
+    }
+
+    private static Pattern compilePattern(Rule rule) {
+        if (rule.type() != RuleType.NAME_PATTERN) {
+            return null;
+        }
+        try {
+            return Pattern.compile(rule.match());
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("Некорректное регулярное выражение правила " + rule, e);
+        }
+    }
+
+    private record CompiledRule(String name, String label, Pattern pattern, LongAdder hits) {
+    }
+}
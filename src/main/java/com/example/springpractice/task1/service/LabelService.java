@@ -2,8 +2,11 @@ package com.example.springpractice.task1.service;
 
 import com.example.springpractice.task1.domain.Movie;
 
+import java.util.Collection;
+
 /**
  * Сервис для фильмов.
+ * Смена лейбла публикует {@link com.example.springpractice.task1.event.MovieLabelChangedEvent}.
  *
  * @author Klim Ross
  * @since 2023.12.02
@@ -11,4 +14,26 @@ import com.example.springpractice.task1.domain.Movie;
 public interface LabelService {
 
     void assignLabel(Movie movie);
+
+    /**
+     * Присвоение лейбла фильму по идентификатору. Внутри транзакции, создавшей фильм,
+     * сущность берется из контекста персистентности без запроса к БД.
+     *
+     * @throws jakarta.persistence.EntityNotFoundException если фильма нет
+     */
+    void assignLabel(Long movieId);
+
+    /**
+     * Присвоение лейбла группе фильмов по идентификаторам.
+     */
+    void assignLabels(Collection<Long> movieIds);
+
+    /**
+     * Присвоение лейбла фильму по идентификатору условным UPDATE по версии, без загрузки сущности.
+     * При конфликте с параллельным изменением попытка повторяется.
+     *
+     * @throws jakarta.persistence.EntityNotFoundException если фильма нет
+     * @throws org.springframework.dao.OptimisticLockingFailureException если попытки кончились
+     */
+    void changeLabel(Long movieId, String label);
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.example.springpractice.task1.service;
+
+import com.example.springpractice.task1.dto.MovieExport;
+import com.example.springpractice.task1.dto.MovieExportRow;
+import com.example.springpractice.task1.repository.MovieRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Сервис выгрузки каталога фильмов.
+ * Каталог читается одним запросом-курсором и передается обработчику пофильмово: в памяти в каждый момент
+ * только текущий фильм с авторами, независимо от размера каталога.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Service
+public class MovieExportService {
+
+    private final MovieRepository movieRepository;
+
+    public MovieExportService(MovieRepository movieRepository) {
+        this.movieRepository = movieRepository;
+    }
+
+    /**
+     * Передает обработчику фильмы каталога по возрастанию id.
+     *
+     * @return количество выгруженных фильмов
+     */
+    @Transactional(readOnly = true)
+    public long export(Consumer<MovieExport> consumer) {
+        long count = 0;
+        try (Stream<MovieExportRow> rows = movieRepository.streamExportRows()) {
+            final Iterator<MovieExportRow> iterator = rows.iterator();
+            MovieExportRow current = null;
+            List<String> authors = new ArrayList<>();
+            while (iterator.hasNext()) {
+                final MovieExportRow row = iterator.next();
+                // строки одного фильма идут подряд - фильм готов, когда началась строка следующего
+                if (current != null && !current.movieId().equals(row.movieId())) {
+                    consumer.accept(toExport(current, authors));
+                    count++;
+                    authors = new ArrayList<>();
+                }
+                current = row;
+                if (row.authorName() != null) {
+                    authors.add(row.authorName());
+                }
+            }
+            if (current != null) {
+                consumer.accept(toExport(current, authors));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static MovieExport toExport(MovieExportRow row, List<String> authors) {
+        return new MovieExport(row.movieId(), row.name(), row.label(), row.createdAt(), authors);
+    }
+}
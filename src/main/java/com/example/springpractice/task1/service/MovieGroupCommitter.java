@@ -0,0 +1,232 @@
+package com.example.springpractice.task1.service;
+
+import com.example.springpractice.task1.conf.MovieGroupCommitProperties;
+import com.example.springpractice.task1.domain.Movie;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Групповое создание фильмов: одновременные запросы на создание, пришедшие в пределах окна,
+ * выполняются в одной транзакции - вставки уходят одним JDBC батчем, фиксация одна на группу.
+ * Вызывающий поток ждет фиксации своей группы и получает свой фильм или свою ошибку.
+ * <p>
+ * Если группа откатилась (ошибка в одном из созданий или при фиксации), каждый ее запрос повторяется
+ * в отдельной транзакции: ошибка одного запроса не достается остальным. При этом каждый фильм публикует
+ * {@link com.example.springpractice.task1.event.MovieCreatedEvent} дважды: в группе и в своей транзакции.
+ * Обработчики AFTER_ROLLBACK и AFTER_COMPLETION получают откат группы для всех ее фильмов, в том числе для тех,
+ * которые затем создаются по одному, - откат в них не означает, что фильм не создан. AFTER_COMMIT и BEFORE_COMMIT
+ * срабатывают для фильма один раз.
+ * <p>
+ * Размер групп - в movie.group.commit.size, повторы по одному - в movie.group.commit.split.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(prefix = "movie.group-commit", name = "enabled", havingValue = "true")
+public class MovieGroupCommitter {
+
+    private final MovieService movieService;
+    private final MovieGroupCommitProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingMovie> queue;
+    private final ExecutorService executor;
+    private final DistributionSummary batchSizes;
+    private final Counter splits;
+
+    private volatile boolean running = true;
+
+    public MovieGroupCommitter(MovieService movieService,
+                               MovieGroupCommitProperties properties,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.movieService = movieService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setName(MovieGroupCommitter.class.getSimpleName() + ".commit");
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.batchSizes = DistributionSummary.builder("movie.group.commit.size")
+                .description("Количество фильмов, созданных одной транзакцией")
+                .register(meterRegistry);
+        this.splits = Counter.builder("movie.group.commit.split")
+                .description("Откаченные группы, запросы которых повторены по одному")
+                .register(meterRegistry);
+        this.executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("movie-group-commit-"));
+        this.executor.execute(this::drainLoop);
+    }
+
+    /**
+     * Создание фильма в составе группы. Возвращает управление после фиксации транзакции группы.
+     * Если очередь заполнена или групповая фиксация остановлена, фильм создается в отдельной транзакции
+     * в вызывающем потоке.
+     *
+     * @throws QueryTimeoutException если группа не зафиксирована за {@link MovieGroupCommitProperties#getResultTimeout()}
+     */
+    public Movie createMovie(String name) {
+        final PendingMovie pending = new PendingMovie(name, new CompletableFuture<>());
+        try {
+            if (!running || !queue.offer(pending, properties.getEnqueueTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                log.warn("Очередь групповой фиксации недоступна, фильм создается отдельной транзакцией");
+                return movieService.createMovie(name);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return movieService.createMovie(name);
+        }
+        // остановка началась между проверкой и постановкой в очередь - поток фиксации мог уже завершиться
+        if (!running && queue.remove(pending)) {
+            return movieService.createMovie(name);
+        }
+        try {
+            return pending.result().get(properties.getResultTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            pending.result().cancel(false);
+            throw new QueryTimeoutException("Группа с фильмом не зафиксирована за " + properties.getResultTimeout());
+        } catch (InterruptedException e) {
+            pending.result().cancel(false);
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Ожидание фиксации группы прервано", e);
+        }
+    }
+
+    /**
+     * Количество запросов, ожидающих фиксации.
+     */
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * Дожидается фиксации поставленных в очередь запросов. Запросы, оставшиеся в очереди после остановки потока
+     * фиксации, завершаются ошибкой, а не оставляют вызывающие потоки ждать.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Групповая фиксация остановлена принудительно, не обработано запросов: {}", queue.size());
+                executor.shutdownNow();
+                executor.awaitTermination(1, TimeUnit.SECONDS);
+            }
+        } finally {
+            final List<PendingMovie> abandoned = new ArrayList<>();
+            queue.drainTo(abandoned);
+            abandoned.forEach(pending -> pending.result().completeExceptionally(stopped(null)));
+        }
+    }
+
+    private void drainLoop() {
+        final int maxBatchSize = Math.max(1, properties.getMaxBatchSize());
+        final List<PendingMovie> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                final PendingMovie first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch, maxBatchSize);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.result().completeExceptionally(stopped(e)));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Добирает группу до maxBatchSize, но ждет не дольше window с момента получения первого запроса.
+     */
+    private void collect(List<PendingMovie> batch, int maxBatchSize) throws InterruptedException {
+        final long deadline = System.nanoTime() + properties.getWindow().toNanos();
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            final long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                return;
+            }
+            final PendingMovie next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<PendingMovie> batch) {
+        // вызывающий поток перестал ждать - его фильм не создается
+        batch.removeIf(pending -> pending.result().isDone());
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizes.record(batch.size());
+        final List<Movie> created;
+        try {
+            created = transactionTemplate.execute(status -> {
+                final List<Movie> movies = new ArrayList<>(batch.size());
+                for (PendingMovie pending : batch) {
+                    movies.add(movieService.createMovie(pending.name()));
+                }
+                return movies;
+            });
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(e);
+                return;
+            }
+            splits.increment();
+            log.debug("Группа из {} фильмов откачена, запросы повторяются по одному", batch.size(), e);
+            batch.forEach(this::commitAlone);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(created.get(i));
+        }
+    }
+
+    private void commitAlone(PendingMovie pending) {
+        try {
+            pending.result().complete(movieService.createMovie(pending.name()));
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    private static IllegalStateException stopped(Throwable cause) {
+        return new IllegalStateException("Групповая фиксация остановлена, фильм не создан", cause);
+    }
+
+    private record PendingMovie(String name, CompletableFuture<Movie> result) {
+    }
+}
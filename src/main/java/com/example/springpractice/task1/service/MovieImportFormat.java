@@ -0,0 +1,217 @@
+package com.example.springpractice.task1.service;
+
+import com.example.springpractice.task1.dto.MovieImportRecord;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * Формат файла импорта фильмов. Оба формата совпадают с форматами выгрузки каталога
+ * и читаются потоково - по одной записи, без чтения файла целиком.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public enum MovieImportFormat {
+
+    /**
+     * Фильм - JSON объект {"name", "label", "authors": [...]} на отдельной строке.
+     */
+    NDJSON("application/x-ndjson") {
+        @Override
+        public Reader open(InputStream in, ObjectMapper objectMapper) throws IOException {
+            final MappingIterator<MovieImportRecord> records =
+                    objectMapper.readerFor(MovieImportRecord.class).readValues(in);
+            return new Reader() {
+                @Override
+                public boolean hasNext() {
+                    return records.hasNext();
+                }
+
+                @Override
+                public MovieImportRecord next() {
+                    return records.next();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    records.close();
+                }
+            };
+        }
+    },
+
+    /**
+     * CSV по RFC 4180 с заголовком, обязательна колонка name, авторы - через точку с запятой в колонке authors.
+     */
+    CSV("text/csv") {
+        @Override
+        public Reader open(InputStream in, ObjectMapper objectMapper) throws IOException {
+            return new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        }
+    };
+
+    private final String contentType;
+
+    MovieImportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Формат по имени файла: .ndjson, .jsonl или .csv.
+     */
+    public static MovieImportFormat fromFileName(String fileName) {
+        final String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        throw new IllegalArgumentException("Неизвестный формат файла импорта: " + fileName);
+    }
+
+    /**
+     * Формат по типу содержимого запроса.
+     */
+    public static MovieImportFormat fromContentType(String contentType) {
+        return Arrays.stream(values())
+                .filter(format -> contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(format.contentType))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Неизвестный формат импорта: " + contentType));
+    }
+
+    public abstract Reader open(InputStream in, ObjectMapper objectMapper) throws IOException;
+
+    /**
+     * Последовательное чтение фильмов из файла импорта.
+     */
+    public interface Reader extends Iterator<MovieImportRecord>, Closeable {
+    }
+
+    private static final class CsvReader implements Reader {
+
+        private final BufferedReader reader;
+        private final int nameColumn;
+        private final int labelColumn;
+        private final int authorsColumn;
+        private List<String> nextRecord;
+
+        CsvReader(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            final List<String> header = readRecord();
+            if (header == null) {
+                throw new IllegalArgumentException("Файл импорта пуст");
+            }
+            this.nameColumn = header.indexOf("name");
+            this.labelColumn = header.indexOf("label");
+            this.authorsColumn = header.indexOf("authors");
+            if (nameColumn < 0) {
+                throw new IllegalArgumentException("В заголовке CSV нет колонки name: " + header);
+            }
+            this.nextRecord = readNonEmptyRecord();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextRecord != null;
+        }
+
+        @Override
+        public MovieImportRecord next() {
+            if (nextRecord == null) {
+                throw new NoSuchElementException();
+            }
+            final List<String> record = nextRecord;
+            try {
+                nextRecord = readNonEmptyRecord();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            final String authors = column(record, authorsColumn);
+            return new MovieImportRecord(column(record, nameColumn), column(record, labelColumn),
+                    authors == null ? List.of() : Arrays.stream(authors.split(";"))
+                            .map(String::trim)
+                            .filter(author -> !author.isEmpty())
+                            .toList());
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+
+        private static String column(List<String> record, int index) {
+            if (index < 0 || index >= record.size() || record.get(index).isEmpty()) {
+                return null;
+            }
+            return record.get(index);
+        }
+
+        private List<String> readNonEmptyRecord() throws IOException {
+            List<String> record = readRecord();
+            while (record != null && record.size() == 1 && record.get(0).isEmpty()) {
+                record = readRecord();
+            }
+            return record;
+        }
+
+        /**
+         * Одна запись CSV: поля в кавычках могут содержать запятые, переводы строк и удвоенные кавычки.
+         *
+         * @return поля записи или null в конце файла
+         */
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            final List<String> fields = new ArrayList<>();
+            final StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Незакрытая кавычка в CSV");
+                    }
+                    if (c == '"') {
+                        c = reader.read();
+                        if (c != '"') {
+                            quoted = false;
+                            continue;
+                        }
+                    }
+                    field.append((char) c);
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.springpractice.task1.service;
+
+import com.example.springpractice.task1.conf.MovieImportProperties;
+import com.example.springpractice.task1.dto.MovieImportResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Импорт фильмов из файла при запуске приложения:
+ * {@code java -jar app.jar --movie.import.file=movies.ndjson}.
+ * Повторный запуск с тем же файлом продолжает прерванный импорт с первой незагруженной пачки.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "movie.import", name = "file")
+public class MovieImportRunner implements ApplicationRunner {
+
+    private final MovieImportService movieImportService;
+    private final MovieImportProperties properties;
+
+    public MovieImportRunner(MovieImportService movieImportService, MovieImportProperties properties) {
+        this.movieImportService = movieImportService;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        final Path file = properties.getFile();
+        final String fileName = file.getFileName().toString();
+        final String importId = (properties.getImportId() != null
+                ? properties.getImportId()
+                : fileName + "-" + Files.size(file));
+        log.info("Импорт фильмов из файла {}, идентификатор импорта {}", file, importId);
+        try (InputStream in = Files.newInputStream(file)) {
+            final MovieImportResult result =
+                    movieImportService.importMovies(importId, MovieImportFormat.fromFileName(fileName), in);
+            log.info("Импорт из файла {} завершен: {}", file, result);
+        }
+    }
+}
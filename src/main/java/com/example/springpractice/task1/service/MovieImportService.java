@@ -0,0 +1,302 @@
+package com.example.springpractice.task1.service;
+
+import com.example.springpractice.task1.conf.MovieImportProperties;
+import com.example.springpractice.task1.domain.Author;
+import com.example.springpractice.task1.domain.ImportCheckpoint;
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.domain.OutboxEvent;
+import com.example.springpractice.task1.dto.MovieImportRecord;
+import com.example.springpractice.task1.dto.MovieImportResult;
+import com.example.springpractice.task1.event.MovieBatchCreatedEvent;
+import com.example.springpractice.task1.repository.AuthorRepository;
+import com.example.springpractice.task1.repository.ImportCheckpointRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис массового импорта фильмов и авторов из файла.
+ * <ol>
+ *     <li>файл читается потоково и нарезается на пачки по {@link MovieImportProperties#getChunkSize()} фильмов;</li>
+ *     <li>авторы пачки сопоставляются по имени с индексом в памяти, неизвестные ищутся в БД одним запросом,
+ *     отсутствующие создаются - последовательно в читающем потоке, поэтому один автор не создается дважды.
+ *     Имя автора уникально: если параллельный импорт успел создать того же автора, поиск и создание
+ *     повторяются в новой транзакции;</li>
+ *     <li>пачки пишутся параллельно, каждая в своей транзакции, JDBC батчами Hibernate (фильмы и связи с авторами)
+ *     вместе с отметкой {@link ImportCheckpoint}, записями outbox и одним {@link MovieBatchCreatedEvent}
+ *     на пачку;</li>
+ *     <li>при повторном запуске с тем же идентификатором импорта отмеченные пачки пропускаются.</li>
+ * </ol>
+ * Лейбл приходит из файла: лейбл присваивается (событием и через outbox) только фильмам, у которых его в файле нет,
+ * а поиск и остальные обработчики события получают все фильмы пачки.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Service
+@Slf4j
+public class MovieImportService {
+
+    /**
+     * Попыток найти и создать авторов пачки, если их параллельно создает другой импорт.
+     */
+    private static final int AUTHOR_ATTEMPTS = 3;
+
+    private final MovieImportProperties properties;
+    private final AuthorRepository authorRepository;
+    private final ImportCheckpointRepository importCheckpointRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final OutboxService outboxService;
+
+    public MovieImportService(MovieImportProperties properties,
+                              AuthorRepository authorRepository,
+                              ImportCheckpointRepository importCheckpointRepository,
+                              EntityManager entityManager,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher applicationEventPublisher,
+                              ObjectProvider<OutboxService> outboxService) {
+        this.properties = properties;
+        this.authorRepository = authorRepository;
+        this.importCheckpointRepository = importCheckpointRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.outboxService = outboxService.getIfAvailable();
+    }
+
+    /**
+     * Импорт фильмов из потока. Возвращает управление после загрузки всех пачек.
+     * Если пачка не загрузилась, чтение останавливается, уже загруженные пачки остаются отмеченными,
+     * и повторный запуск с тем же importId продолжит импорт.
+     *
+     * @param importId идентификатор импорта для продолжения прерванного импорта
+     */
+    public MovieImportResult importMovies(String importId, MovieImportFormat format, InputStream in) throws IOException {
+        final ImportRun run = new ImportRun(importId);
+        try (MovieImportFormat.Reader reader = format.open(in, objectMapper)) {
+            run.execute(reader);
+        }
+        return run.result();
+    }
+
+    private Set<Integer> completedChunks(String importId, int chunkSize) {
+        final List<ImportCheckpoint> checkpoints = importCheckpointRepository.findByImportId(importId);
+        checkpoints.stream()
+                .filter(checkpoint -> checkpoint.getChunkSize() != chunkSize)
+                .findFirst()
+                .ifPresent(checkpoint -> {
+                    throw new IllegalStateException("Импорт " + importId + " начат с размером пачки "
+                            + checkpoint.getChunkSize() + ", текущий размер " + chunkSize);
+                });
+        return checkpoints.stream().map(ImportCheckpoint::getChunkIndex).collect(Collectors.toSet());
+    }
+
+    private void ignoreSecondLevelCache() {
+        // импорт не должен вытеснять из кэша второго уровня то, что читают пользователи
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+    }
+
+    /**
+     * Состояние одного запуска импорта.
+     */
+    private final class ImportRun {
+
+        private final String importId;
+        private final int chunkSize = properties.getChunkSize();
+        private final long started = System.nanoTime();
+        private final Map<String, Long> authorIndex = new HashMap<>();
+        private final AtomicLong movies = new AtomicLong();
+        private final AtomicInteger chunks = new AtomicInteger();
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        private Set<Integer> completed;
+        private int skippedChunks;
+        private long createdAuthors;
+
+        ImportRun(String importId) {
+            this.importId = importId;
+        }
+
+        void execute(MovieImportFormat.Reader reader) {
+            completed = completedChunks(importId, chunkSize);
+            if (!completed.isEmpty()) {
+                log.info("Продолжение импорта {}: уже загружено пачек {}", importId, completed.size());
+            }
+            final int parallelism = properties.getParallelism();
+            // не больше двух пачек в очереди на поток - чтение файла не убегает вперед записи
+            final Semaphore inFlight = new Semaphore(parallelism * 2);
+            final ExecutorService executor =
+                    Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("movie-import-"));
+            try {
+                int chunkIndex = 0;
+                List<MovieImportRecord> chunk = new ArrayList<>(chunkSize);
+                while (failure.get() == null && reader.hasNext()) {
+                    chunk.add(reader.next());
+                    if (chunk.size() == chunkSize) {
+                        submit(executor, inFlight, chunkIndex++, chunk);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (failure.get() == null && !chunk.isEmpty()) {
+                    submit(executor, inFlight, chunkIndex, chunk);
+                }
+                inFlight.acquire(parallelism * 2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, new IllegalStateException("Импорт " + importId + " прерван", e));
+            } finally {
+                executor.shutdownNow();
+            }
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+            log.info("Импорт {} завершен: фильмов {}, пачек {}, пропущено пачек {}, новых авторов {}, за {} с",
+                    importId, movies.get(), chunks.get(), skippedChunks, createdAuthors, elapsed().toSeconds());
+        }
+
+        MovieImportResult result() {
+            return new MovieImportResult(importId, movies.get(), chunks.get(), skippedChunks, createdAuthors, elapsed());
+        }
+
+        private void submit(ExecutorService executor, Semaphore inFlight, int chunkIndex,
+                            List<MovieImportRecord> chunk) throws InterruptedException {
+            if (completed.contains(chunkIndex)) {
+                skippedChunks++;
+                return;
+            }
+            final List<List<Long>> authorIds = resolveAuthors(chunk);
+            inFlight.acquire();
+            executor.execute(() -> {
+                try {
+                    if (failure.get() == null) {
+                        transactionTemplate.executeWithoutResult(status -> writeChunk(chunkIndex, chunk, authorIds));
+                        reportProgress(chunk.size());
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Ошибка загрузки пачки {} импорта {}", chunkIndex, importId, e);
+                    failure.compareAndSet(null, e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+
+        /**
+         * Идентификаторы авторов для каждого фильма пачки, недостающие авторы создаются.
+         */
+        private List<List<Long>> resolveAuthors(List<MovieImportRecord> chunk) {
+            final Set<String> missing = chunk.stream()
+                    .flatMap(record -> record.authors().stream())
+                    .filter(name -> !authorIndex.containsKey(name))
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            if (!missing.isEmpty()) {
+                final ResolvedAuthors resolved = findOrCreateAuthors(missing);
+                resolved.found().forEach(author -> authorIndex.putIfAbsent(author.getName(), author.getId()));
+                resolved.created().forEach(author -> authorIndex.put(author.getName(), author.getId()));
+                createdAuthors += resolved.created().size();
+            }
+            return chunk.stream()
+                    .map(record -> record.authors().stream().distinct().map(authorIndex::get).toList())
+                    .toList();
+        }
+
+        /**
+         * Поиск авторов по именам и создание недостающих. Если автора успел создать параллельный импорт, вставка
+         * нарушает уникальность имени, и попытка повторяется в новой транзакции - поиск уже найдет этого автора.
+         * Индекс авторов пополняется только по результату зафиксированной попытки.
+         */
+        private ResolvedAuthors findOrCreateAuthors(Set<String> names) {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return transactionTemplate.execute(status -> {
+                        ignoreSecondLevelCache();
+                        final List<Author> found = authorRepository.findByNameIn(names);
+                        final Set<String> missing = new LinkedHashSet<>(names);
+                        found.forEach(author -> missing.remove(author.getName()));
+                        final List<Author> created = authorRepository.saveAll(
+                                missing.stream().map(name -> new Author(null, name)).toList());
+                        return new ResolvedAuthors(found, created);
+                    });
+                } catch (DataIntegrityViolationException e) {
+                    if (attempt >= AUTHOR_ATTEMPTS) {
+                        throw e;
+                    }
+                    log.debug("Импорт {}: авторов создали параллельно, попытка {} из {}",
+                            importId, attempt, AUTHOR_ATTEMPTS);
+                }
+            }
+        }
+
+        private void writeChunk(int chunkIndex, List<MovieImportRecord> chunk, List<List<Long>> authorIds) {
+            ignoreSecondLevelCache();
+            final List<Long> movieIds = new ArrayList<>(chunk.size());
+            final List<Long> unlabeledIds = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                final MovieImportRecord record = chunk.get(i);
+                final Movie movie = new Movie(record.name());
+                movie.setLabel(record.label());
+                movie.setAuthors(authorIds.get(i).stream()
+                        .map(id -> entityManager.getReference(Author.class, id))
+                        .collect(Collectors.toCollection(ArrayList::new)));
+                entityManager.persist(movie);
+                movieIds.add(movie.getId());
+                if (movie.getLabel() == null) {
+                    unlabeledIds.add(movie.getId());
+                }
+            }
+            entityManager.persist(new ImportCheckpoint(importId, chunkIndex, chunkSize, chunk.size()));
+            if (outboxService != null && !unlabeledIds.isEmpty()) {
+                outboxService.appendAll(OutboxEvent.MOVIE_CREATED, unlabeledIds);
+            }
+            applicationEventPublisher.publishEvent(
+                    new MovieBatchCreatedEvent(MovieImportService.this, movieIds, unlabeledIds));
+        }
+
+        private void reportProgress(int rows) {
+            final long total = movies.addAndGet(rows);
+            final int done = chunks.incrementAndGet();
+            if (done % properties.getProgressInterval() == 0) {
+                final double seconds = Math.max(elapsed().toMillis(), 1) / 1000.0;
+                log.info("Импорт {}: загружено фильмов {}, пачек {}, {} фильмов/с",
+                        importId, total, done, Math.round(total / seconds));
+            }
+        }
+
+        private Duration elapsed() {
+            return Duration.ofNanos(System.nanoTime() - started);
+        }
+    }
+
+    private record ResolvedAuthors(List<Author> found, List<Author> created) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.springpractice.task1.service;
+
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.dto.MovieCursor;
+import com.example.springpractice.task1.dto.MovieFilter;
+import com.example.springpractice.task1.dto.MovieListItem;
+import com.example.springpractice.task1.repository.MovieRepository;
+import com.example.springpractice.task1.repository.MovieSpecifications;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Сервис чтения списка фильмов.
+ * Используется keyset пагинация по (createdAt, id): следующая страница начинается с условия на ключ последнего
+ * отданного фильма, поэтому стоимость запроса не зависит от глубины страницы, в отличие от OFFSET.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Service
+public class MovieQueryService {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+    private final MovieRepository movieRepository;
+    private final EntityManager entityManager;
+
+    public MovieQueryService(MovieRepository movieRepository, EntityManager entityManager) {
+        this.movieRepository = movieRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Передает фильмы страницы обработчику по мере чтения из БД, не собирая страницу целиком.
+     *
+     * @param after позиция, после которой начинается страница, null - с начала списка
+     * @return позиция для запроса следующей страницы, null - если страница последняя
+     */
+    @Transactional(readOnly = true)
+    @Nullable
+    public MovieCursor forEachInPage(MovieFilter filter, @Nullable MovieCursor after, int size,
+                                     Consumer<MovieListItem> consumer) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        Specification<Movie> specification = MovieSpecifications.matching(filter);
+        if (after != null) {
+            specification = specification.and(MovieSpecifications.after(after));
+        }
+        MovieListItem last = null;
+        int count = 0;
+        try (Stream<Movie> movies = movieRepository.findBy(specification,
+                query -> query.sortBy(KEYSET_ORDER).limit(size).stream())) {
+            final Iterator<Movie> iterator = movies.iterator();
+            while (iterator.hasNext()) {
+                final Movie movie = iterator.next();
+                last = new MovieListItem(movie.getId(), movie.getName(), movie.getLabel(), movie.getCreatedAt());
+                entityManager.detach(movie);
+                consumer.accept(last);
+                count++;
+            }
+        }
+        return count == size ? last.cursor() : null;
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.springpractice.task1.service;
+
+import com.example.springpractice.task1.dto.MovieAuthorView;
+import com.example.springpractice.task1.dto.MovieExport;
+import com.example.springpractice.task1.dto.MovieSearchHit;
+import com.example.springpractice.task1.dto.MovieSummary;
+import com.example.springpractice.task1.repository.MovieRepository;
+import com.example.springpractice.task1.search.MovieSearchIndex;
+import com.example.springpractice.task1.search.MovieSearchMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Полнотекстовый поиск фильмов по названию и именам авторов.
+ * Поиск идет только по {@link MovieSearchIndex}, БД читается лишь при переиндексации и перестроении индекса.
+ * <p>
+ * Время поиска - в movie.search.queries (по режимам), переиндексированные фильмы - в movie.search.indexed,
+ * упавшие перестроения индекса - в movie.search.rebuild.failures.
+ * <p>
+ * Перестроение по запросу идет в отдельном потоке, одновременно - не больше одного.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(prefix = "movie.search", name = "enabled", havingValue = "true")
+public class MovieSearchService {
+
+    private final MovieSearchIndex index;
+    private final MovieRepository movieRepository;
+    private final MovieExportService movieExportService;
+    private final TransactionTemplate readOnlyTemplate;
+    private final Map<MovieSearchMode, Timer> queries = new EnumMap<>(MovieSearchMode.class);
+    private final Counter indexed;
+    private final Counter rebuildFailures;
+    private final ExecutorService rebuildExecutor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("search-rebuild-"));
+
+    private CompletableFuture<Long> lastRebuild;
+
+    public MovieSearchService(MovieSearchIndex index,
+                              MovieRepository movieRepository,
+                              MovieExportService movieExportService,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.index = index;
+        this.movieRepository = movieRepository;
+        this.movieExportService = movieExportService;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.readOnlyTemplate.setName(MovieSearchService.class.getName() + ".load");
+        for (MovieSearchMode mode : MovieSearchMode.values()) {
+            queries.put(mode, Timer.builder("movie.search.queries")
+                    .description("Поиск фильмов")
+                    .tag("mode", mode.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        this.indexed = Counter.builder("movie.search.indexed")
+                .description("Фильмы, переиндексированные после изменений")
+                .register(meterRegistry);
+        this.rebuildFailures = Counter.builder("movie.search.rebuild.failures")
+                .description("Перестроения индекса, завершившиеся ошибкой")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Фильмы по словам названия и имени автора, по убыванию релевантности.
+     */
+    public List<MovieSearchHit> search(String text, String author, MovieSearchMode mode, int limit) {
+        return queries.get(mode).record(() -> index.search(text, author, mode, limit));
+    }
+
+    /**
+     * Переиндексирует фильмы по текущему состоянию в БД: два запроса на всю пачку - фильмы и их авторы.
+     * Фильмы, которых в БД нет, удаляются из индекса. Поиск увидит изменения после {@link #refresh()}.
+     */
+    public void reindex(Collection<Long> movieIds) {
+        final List<MovieExport> movies = readOnlyTemplate.execute(status -> load(movieIds));
+        final Set<Long> missing = new HashSet<>(movieIds);
+        for (MovieExport movie : movies) {
+            index.index(movie);
+            missing.remove(movie.id());
+        }
+        missing.forEach(index::delete);
+        indexed.increment(movieIds.size());
+    }
+
+    /**
+     * Открывает поиску изменения, проиндексированные до вызова.
+     */
+    public void refresh() {
+        index.refresh();
+    }
+
+    /**
+     * Фиксирует индекс на диске.
+     */
+    public void commit() {
+        index.commit();
+    }
+
+    /**
+     * Строит индекс заново по всему каталогу в БД. Фильмы, переиндексированные за время перестроения,
+     * перечитываются после него; если перестроение упало, индекс остается прежним.
+     *
+     * @return количество фильмов в индексе
+     */
+    public long rebuild() {
+        final long started = System.nanoTime();
+        final long count;
+        try {
+            count = index.rebuild(movieExportService::export, ids -> readOnlyTemplate.execute(status -> load(ids)));
+        } catch (RuntimeException e) {
+            rebuildFailures.increment();
+            throw e;
+        }
+        log.info("Индекс поиска перестроен: {} фильмов за {} мс", count, (System.nanoTime() - started) / 1_000_000);
+        return count;
+    }
+
+    /**
+     * Запускает перестроение индекса в отдельном потоке.
+     *
+     * @return завершение перестроения с количеством фильмов в индексе; пусто, если перестроение уже идет
+     */
+    public synchronized Optional<CompletableFuture<Long>> rebuildAsync() {
+        if (lastRebuild != null && !lastRebuild.isDone()) {
+            return Optional.empty();
+        }
+        lastRebuild = CompletableFuture.supplyAsync(this::rebuild, rebuildExecutor);
+        return Optional.of(lastRebuild);
+    }
+
+    /**
+     * Последнее перестроение, запущенное {@link #rebuildAsync()}; пусто, если перестроение не запускалось.
+     */
+    public synchronized Optional<CompletableFuture<Long>> lastRebuild() {
+        return Optional.ofNullable(lastRebuild);
+    }
+
+    /**
+     * Количество фильмов в индексе.
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Идущее перестроение не дожидается: индекс при закрытии отбрасывает его незафиксированные изменения.
+     */
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private List<MovieExport> load(Collection<Long> movieIds) {
+        final Map<Long, List<String>> authors = movieRepository.findAuthorViews(movieIds).stream()
+                .collect(Collectors.groupingBy(
+                        MovieAuthorView::movieId, Collectors.mapping(MovieAuthorView::authorName, Collectors.toList())));
+        return movieRepository.findSummariesByIdIn(movieIds).stream()
+                .map(movie -> toExport(movie, authors.getOrDefault(movie.getId(), List.of())))
+                .toList();
+    }
+
+    private static MovieExport toExport(MovieSummary movie, List<String> authors) {
+        return new MovieExport(movie.getId(), movie.getName(), movie.getLabel(), movie.getCreatedAt(), authors);
+    }
+}
@@ -1,12 +1,20 @@
 package com.example.springpractice.task1.service;
 
+import com.example.springpractice.task1.conf.MovieBatchProperties;
 import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.domain.OutboxEvent;
+import com.example.springpractice.task1.event.MovieBatchCreatedEvent;
 import com.example.springpractice.task1.event.MovieCreatedEvent;
 import com.example.springpractice.task1.repository.MovieRepository;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Сервис для фильмов.
  *
@@ -18,17 +26,72 @@ public class MovieService {
 
     private final MovieRepository movieRepository;
     private final ApplicationEventPublisher applicationEventPublisher;
+    private final EntityManager entityManager;
+    private final MovieBatchProperties batchProperties;
+    /**
+     * Сервис outbox, если он включен (movie.outbox.enabled).
+     */
+    private final OutboxService outboxService;
 
-    public MovieService(MovieRepository movieRepository, ApplicationEventPublisher applicationEventPublisher) {
+    public MovieService(MovieRepository movieRepository,
+                        ApplicationEventPublisher applicationEventPublisher,
+                        EntityManager entityManager,
+                        MovieBatchProperties batchProperties,
+                        ObjectProvider<OutboxService> outboxService) {
         this.movieRepository = movieRepository;
         this.applicationEventPublisher = applicationEventPublisher;
+        this.entityManager = entityManager;
+        this.batchProperties = batchProperties;
+        this.outboxService = outboxService.getIfAvailable();
     }
 
     @Transactional
     public Movie createMovie(String name) {
         final Movie newMovie = movieRepository.save(new Movie("Movie 1"));
-        final MovieCreatedEvent event = new MovieCreatedEvent(newMovie);
-        applicationEventPublisher.publishEvent(event);
+        applicationEventPublisher.publishEvent(new MovieCreatedEvent(this, newMovie));
+        appendToOutbox(newMovie);
         return newMovie;
     }
-}
\ No newline at end of file
+
+    /**
+     * Пакетное создание фильмов в рамках одной транзакции.
+     * Каждые {@link MovieBatchProperties#getChunkSize()} фильмов контекст персистентности сбрасывается в БД
+     * (вставки фильмов и записей outbox уходят JDBC батчами) и очищается, чтобы не накапливать managed сущности в памяти.
+     * На весь пакет публикуется одно {@link MovieBatchCreatedEvent}, а не событие на каждый фильм.
+     *
+     * @return идентификаторы созданных фильмов в порядке переданных названий
+     */
+    @Transactional
+    public List<Long> createMovies(List<String> names) {
+        final int chunkSize = Math.max(1, batchProperties.getChunkSize());
+        final List<Long> ids = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            ids.add(movieRepository.save(new Movie(names.get(i))).getId());
+            if ((i + 1) % chunkSize == 0 || i == names.size() - 1) {
+                appendToOutbox(ids.subList(i - i % chunkSize, i + 1));
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        applicationEventPublisher.publishEvent(new MovieBatchCreatedEvent(this, ids));
+        return ids;
+    }
+
+    /**
+     * Запись события создания фильма в outbox в текущей транзакции.
+     */
+    private void appendToOutbox(Movie movie) {
+        if (outboxService != null) {
+            outboxService.append(OutboxEvent.MOVIE_CREATED, movie.getId());
+        }
+    }
+
+    /**
+     * Запись событий создания чанка фильмов в outbox в текущей транзакции.
+     */
+    private void appendToOutbox(List<Long> movieIds) {
+        if (outboxService != null) {
+            outboxService.appendAll(OutboxEvent.MOVIE_CREATED, movieIds);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.springpractice.task1.service;
+
+import com.example.springpractice.task1.conf.OptimisticRetryProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Повтор операции при конфликте оптимистической блокировки ({@link OptimisticLockingFailureException},
+ * в нее Spring переводит {@link jakarta.persistence.OptimisticLockException}).
+ * Перед повтором выдерживается случайная пауза от нуля до границы, удваивающейся с каждой попыткой, - так
+ * конфликтующие писатели расходятся во времени, а не сталкиваются снова.
+ * <p>
+ * Каждая попытка должна начинать новую транзакцию (вызов транзакционного метода через прокси) либо не опираться
+ * на сущности, прочитанные в предыдущей попытке: контекст персистентности после конфликта содержит устаревшие данные.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Component
+@Slf4j
+public class OptimisticLockRetry {
+
+    private final OptimisticRetryProperties properties;
+    private final Counter retried;
+    private final Counter exhausted;
+
+    public OptimisticLockRetry(OptimisticRetryProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.retried = Counter.builder("movie.optimistic.conflicts")
+                .description("Конфликты оптимистической блокировки")
+                .tag("result", "retried")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("movie.optimistic.conflicts")
+                .description("Конфликты оптимистической блокировки")
+                .tag("result", "exhausted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Выполнение операции с повтором при конфликте. Если попытки кончились, пробрасывается последний конфликт.
+     */
+    public <T> T execute(Supplier<T> operation) {
+        final int maxAttempts = properties.getMaxAttempts();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return operation.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw e;
+                }
+                retried.increment();
+                log.debug("Конфликт оптимистической блокировки, попытка {} из {}: {}", attempt, maxAttempts, e.getMessage());
+                backoff(attempt);
+            }
+        }
+    }
+
+    public void execute(Runnable operation) {
+        execute(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    private void backoff(int attempt) {
+        final long bound = Math.min(properties.getMaxBackoff().toNanos(),
+                properties.getInitialBackoff().toNanos() << Math.min(attempt - 1, 20));
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OptimisticLockingFailureException("Повтор операции прерван", e);
+        }
+    }
+}
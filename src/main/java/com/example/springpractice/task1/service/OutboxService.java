@@ -0,0 +1,46 @@
+package com.example.springpractice.task1.service;
+
+import com.example.springpractice.task1.domain.OutboxEvent;
+import com.example.springpractice.task1.repository.OutboxEventRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+/**
+ * Сервис записи событий в outbox.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Service
+@ConditionalOnProperty(prefix = "movie.outbox", name = "enabled", havingValue = "true")
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository) {
+        this.outboxEventRepository = outboxEventRepository;
+    }
+
+    /**
+     * Запись события в outbox. Вызывается только внутри транзакции, изменяющей фильм, -
+     * событие фиксируется или откатывается вместе с ней.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String eventType, Long aggregateId) {
+        outboxEventRepository.save(new OutboxEvent(eventType, aggregateId));
+    }
+
+    /**
+     * Запись событий одного типа по нескольким фильмам в outbox, в той же транзакции.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(String eventType, Collection<Long> aggregateIds) {
+        for (Long aggregateId : aggregateIds) {
+            outboxEventRepository.save(new OutboxEvent(eventType, aggregateId));
+        }
+    }
+}
@@ -1,10 +1,32 @@
 package com.example.springpractice.task1.service.impl;
 
 import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.dto.MovieAuthorView;
+import com.example.springpractice.task1.dto.MovieSummary;
+import com.example.springpractice.task1.event.MovieLabelChangedEvent;
 import com.example.springpractice.task1.repository.MovieRepository;
+import com.example.springpractice.task1.service.LabelAuditService;
+import com.example.springpractice.task1.service.LabelRuleEngine;
+import com.example.springpractice.task1.service.LabelRuleSet;
 import com.example.springpractice.task1.service.LabelService;
+import com.example.springpractice.task1.service.OptimisticLockRetry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 import static org.springframework.transaction.TransactionDefinition.PROPAGATION_REQUIRES_NEW;
 
@@ -18,17 +40,125 @@ import static org.springframework.transaction.TransactionDefinition.PROPAGATION_
 public class DefaultLabelService implements LabelService {
 
     private final MovieRepository movieRepository;
+    private final EntityManager entityManager;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final LabelRuleEngine labelRuleEngine;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    /**
+     * Аудит смены лейблов, если журнал включен (movie.label.journal.enabled).
+     */
+    private final LabelAuditService labelAuditService;
 
-    public DefaultLabelService(MovieRepository movieRepository) {
+    public DefaultLabelService(MovieRepository movieRepository,
+                               EntityManager entityManager,
+                               OptimisticLockRetry optimisticLockRetry,
+                               LabelRuleEngine labelRuleEngine,
+                               ApplicationEventPublisher applicationEventPublisher,
+                               PlatformTransactionManager transactionManager,
+                               ObjectProvider<LabelAuditService> labelAuditService) {
         this.movieRepository = movieRepository;
+        this.entityManager = entityManager;
+        this.optimisticLockRetry = optimisticLockRetry;
+        this.labelRuleEngine = labelRuleEngine;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.labelAuditService = labelAuditService.getIfAvailable();
     }
 
     @Override
     @Transactional
     //@Transactional(PROPAGATION_REQUIRES_NEW)
     public void assignLabel(Movie movie) {
-        final String label = "movie company label";
-        movie.setLabel(label);
-        movieRepository.save(movie);
+        final String oldLabel = movie.getLabel();
+        movie.setLabel(labelRuleEngine.labelFor(movie));
+        // управляемая сущность сохранится при сбросе контекста сама, merge лишь копировал бы ее в себя
+        if (!entityManager.contains(movie)) {
+            movieRepository.save(movie);
+        }
+        if (Objects.equals(oldLabel, movie.getLabel())) {
+            return;
+        }
+        journal(movie.getId(), oldLabel, movie.getLabel());
+        applicationEventPublisher.publishEvent(new MovieLabelChangedEvent(this, movie.getId()));
+    }
+
+    @Override
+    @Transactional
+    public void assignLabel(Long movieId) {
+        // find напрямую: в транзакции создания фильма это попадание в контекст персистентности без прокси репозитория
+        final Movie movie = entityManager.find(Movie.class, movieId);
+        if (movie == null) {
+            throw new EntityNotFoundException("Фильм не найден: " + movieId);
+        }
+        assignLabel(movie);
+    }
+
+    /**
+     * Если все фильмы получают лейбл по умолчанию, пачка обновляется одним UPDATE без чтения
+     * (старые лейблы для журнала читаются, только если он включен).
+     * Иначе читаются только названия и лейблы (и авторы, если есть правила по авторам), и выполняется по одному UPDATE
+     * на каждый получившийся лейбл.
+     */
+    @Override
+    @Transactional
+    public void assignLabels(Collection<Long> movieIds) {
+        if (movieIds.isEmpty()) {
+            return;
+        }
+        final LabelRuleSet rules = labelRuleEngine.rules();
+        if (rules.isDefaultOnly()) {
+            if (labelAuditService != null) {
+                movieRepository.findSummariesByIdIn(movieIds).forEach(movie ->
+                        journal(movie.getId(), movie.getLabel(), rules.getDefaultLabel()));
+            }
+            movieRepository.updateLabel(movieIds, rules.getDefaultLabel());
+            applicationEventPublisher.publishEvent(new MovieLabelChangedEvent(this, movieIds));
+            return;
+        }
+        final Map<Long, List<String>> authors = rules.needsAuthors()
+                ? movieRepository.findAuthorViews(movieIds).stream().collect(Collectors.groupingBy(
+                        MovieAuthorView::movieId, Collectors.mapping(MovieAuthorView::authorName, Collectors.toList())))
+                : Map.of();
+        final Map<String, List<Long>> idsByLabel = new HashMap<>();
+        for (MovieSummary movie : movieRepository.findSummariesByIdIn(movieIds)) {
+            final String label = rules.labelFor(movie.getName(), authors.get(movie.getId()));
+            idsByLabel.computeIfAbsent(label, key -> new ArrayList<>()).add(movie.getId());
+            journal(movie.getId(), movie.getLabel(), label);
+        }
+        idsByLabel.forEach((label, ids) -> movieRepository.updateLabel(ids, label));
+        applicationEventPublisher.publishEvent(new MovieLabelChangedEvent(this, movieIds));
+    }
+
+    /**
+     * Каждая попытка идет в своей короткой транзакции: пауза перед повтором не держит транзакцию и соединение,
+     * а версия читается в новой транзакции и видит последнее зафиксированное изменение при любой изоляции.
+     * Сущность не загружается. Вызов внутри внешней транзакции присоединяется к ней, и повтор тогда не поможет.
+     * Старый лейбл для журнала читается после версии: если его успели сменить, не совпадет и версия.
+     */
+    @Override
+    public void changeLabel(Long movieId, String label) {
+        if (labelRuleEngine.isForbidden(label)) {
+            throw new IllegalArgumentException("Лейбл запрещен: " + label);
+        }
+        optimisticLockRetry.execute(() -> transactionTemplate.executeWithoutResult(status -> {
+            final Long version = movieRepository.findVersionById(movieId)
+                    .orElseThrow(() -> new EntityNotFoundException("Фильм не найден: " + movieId));
+            final String oldLabel = labelAuditService == null ? null : movieRepository.findLabelById(movieId).orElse(null);
+            if (movieRepository.updateLabelIfVersion(movieId, version, label) == 0) {
+                throw new OptimisticLockingFailureException("Фильм " + movieId + " изменен параллельно, версия " + version);
+            }
+            journal(movieId, oldLabel, label);
+            applicationEventPublisher.publishEvent(new MovieLabelChangedEvent(this, movieId));
+        }));
+    }
+
+    /**
+     * Запись смены лейбла в журнал после фиксации текущей транзакции, если журнал включен.
+     */
+    private void journal(long movieId, String oldLabel, String newLabel) {
+        if (labelAuditService != null) {
+            labelAuditService.labelChanged(movieId, oldLabel, newLabel);
+        }
     }
 }
@@ -2,9 +2,14 @@ package com.example.springpractice.task2.service;
 
 import com.example.springpractice.task1.domain.Movie;
 import com.example.springpractice.task1.event.MovieCreatedEvent;
+import com.example.springpractice.task1.event.MovieLabelChangedEvent;
 import com.example.springpractice.task1.repository.MovieRepository;
+import com.example.springpractice.task1.service.LabelAuditService;
+import com.example.springpractice.task1.service.LabelRuleEngine;
+import com.example.springpractice.task1.service.OptimisticLockRetry;
 import io.micrometer.common.util.StringUtils;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Profile;
@@ -14,6 +19,8 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import java.util.Objects;
+
 /**
  * Новый сервис для фильмов.
  *
@@ -27,13 +34,25 @@ public class NewMovieService {
 
     private final MovieRepository movieRepository;
     private final ApplicationEventPublisher applicationEventPublisher;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final LabelRuleEngine labelRuleEngine;
+    /**
+     * Аудит смены лейблов, если журнал включен (movie.label.journal.enabled).
+     */
+    private final LabelAuditService labelAuditService;
     private final NewMovieService self;
 
     public NewMovieService(MovieRepository movieRepository,
                            ApplicationEventPublisher applicationEventPublisher,
+                           OptimisticLockRetry optimisticLockRetry,
+                           LabelRuleEngine labelRuleEngine,
+                           ObjectProvider<LabelAuditService> labelAuditService,
                            @Lazy NewMovieService self) {
         this.movieRepository = movieRepository;
         this.applicationEventPublisher = applicationEventPublisher;
+        this.optimisticLockRetry = optimisticLockRetry;
+        this.labelRuleEngine = labelRuleEngine;
+        this.labelAuditService = labelAuditService.getIfAvailable();
         this.self = self;
     }
 
@@ -43,12 +62,12 @@ public class NewMovieService {
     @Transactional
     public Movie createMovie(String name) {
         final Movie newMovie = movieRepository.save(new Movie("Movie 1"));
-        final MovieCreatedEvent event = new MovieCreatedEvent(newMovie);
+        final MovieCreatedEvent event = new MovieCreatedEvent(this, newMovie);
         applicationEventPublisher.publishEvent(event);
 
         //сервис, через который можно получить статус текущей транзакции
         TransactionStatus transactionStatus = TransactionAspectSupport.currentTransactionStatus();
-        log.info("TransactionStatus: " + transactionStatus.getTransactionName());
+        log.info("TransactionStatus: {}", transactionStatus.getTransactionName());
         return newMovie;
     }
 
@@ -73,12 +92,24 @@ public class NewMovieService {
     @Transactional
     public void changeLabel(long id, String label) {
         Movie movie = movieRepository.getById(id);
+        String oldLabel = movie.getLabel();
         movie.setLabel(label);
-        if ("forbidden".equals(label)) {
+        labelChanged(id, oldLabel, label);
+        if (labelRuleEngine.isForbidden(label)) {
             movieRepository.save(movie);
         }
     }
 
+    /**
+     * Смена лейбла с повтором при конфликте версий.
+     * Метод не транзакционный: каждая попытка вызывает {@link #changeLabel(long, String)} через прокси
+     * и идет в новой транзакции со свежей копией фильма. Если фильм изменили параллельно,
+     * фиксация попытки завершается конфликтом версий, а не затирает чужое изменение.
+     */
+    public void changeLabelWithRetry(long id, String label) {
+        optimisticLockRetry.execute(() -> self.changeLabel(id, label));
+    }
+
     /**
      * Операция присвоения лейбла, в рамках которой бросается непроверяемое исключение.
      */
@@ -94,11 +125,27 @@ public class NewMovieService {
      */
     @Transactional
     public void assignLabelInTxn(Movie newMovie, String label) throws Exception {
+        String oldLabel = newMovie.getLabel();
         newMovie.setLabel(label);
         movieRepository.save(newMovie);
-        if ("label".equals(label)) {
-            throw new Exception("Нельзя присвоить лейбл - label");
+        labelChanged(newMovie.getId(), oldLabel, label);
+        if (labelRuleEngine.isForbidden(label)) {
+            throw new Exception("Нельзя присвоить лейбл - " + label);
+        }
+    }
+
+    /**
+     * Запись смены лейбла в журнал - после фиксации текущей транзакции, если журнал включен,
+     * и событие смены лейбла для остальных обработчиков (например, поиска).
+     */
+    private void labelChanged(long movieId, String oldLabel, String newLabel) {
+        if (Objects.equals(oldLabel, newLabel)) {
+            return;
+        }
+        if (labelAuditService != null) {
+            labelAuditService.labelChanged(movieId, oldLabel, newLabel);
         }
+        applicationEventPublisher.publishEvent(new MovieLabelChangedEvent(this, movieId));
     }
 
     /*@Transactional
@@ -112,7 +159,7 @@ public class NewMovieService {
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public Movie createMovieInSeparateTxn(String name) {
         final Movie newMovie = movieRepository.save(new Movie(name));
-        final MovieCreatedEvent event = new MovieCreatedEvent(newMovie);
+        final MovieCreatedEvent event = new MovieCreatedEvent(this, newMovie);
         applicationEventPublisher.publishEvent(event);
 
         TransactionStatus transactionStatus = TransactionAspectSupport.currentTransactionStatus();
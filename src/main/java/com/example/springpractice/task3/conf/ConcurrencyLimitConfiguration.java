@@ -0,0 +1,51 @@
+package com.example.springpractice.task3.conf;
+
+import com.example.springpractice.task3.filter.DataSourceConcurrencyLimitFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Регистрация ограничителя одновременных запросов к фильмам.
+ * Фильтр стоит после фильтров безопасности - неаутентифицированные запросы не занимают разрешения.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Configuration(proxyBeanMethods = false)
+@Slf4j
+@ConditionalOnProperty(prefix = "movie.concurrency", name = "enabled", havingValue = "true")
+public class ConcurrencyLimitConfiguration {
+
+    private static final int DEFAULT_MAX_CONCURRENT = 10;
+
+    @Bean
+    public FilterRegistrationBean<DataSourceConcurrencyLimitFilter> dataSourceConcurrencyLimitFilter(
+            ConcurrencyLimitProperties properties, DataSource dataSource, MeterRegistry meterRegistry) {
+        final int maxConcurrent = (properties.getMaxConcurrent() != null
+                ? properties.getMaxConcurrent() : poolSize(dataSource));
+        log.info("Ограничение одновременных запросов к фильмам: {}", maxConcurrent);
+        final FilterRegistrationBean<DataSourceConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new DataSourceConcurrencyLimitFilter(maxConcurrent, properties.getAcquireTimeout(), meterRegistry));
+        registration.addUrlPatterns("/movie", "/movie/*");
+        return registration;
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.warn("Не удалось определить размер пула соединений", e);
+        }
+        return DEFAULT_MAX_CONCURRENT;
+    }
+}
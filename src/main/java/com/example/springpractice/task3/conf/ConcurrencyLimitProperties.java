@@ -0,0 +1,33 @@
+package com.example.springpractice.task3.conf;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки ограничения числа одновременно обрабатываемых запросов к фильмам.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Data
+@ConfigurationProperties(prefix = "movie.concurrency")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * Включает ограничитель.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Максимум одновременно обрабатываемых запросов. По умолчанию - размер пула соединений:
+     * больше запросов одновременно к БД все равно не попадут, остальные лишь будут ждать соединение внутри транзакции.
+     */
+    private Integer maxConcurrent;
+
+    /**
+     * Сколько запрос ждет разрешения, прежде чем получить 503.
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(2);
+}
@@ -0,0 +1,49 @@
+package com.example.springpractice.task3.conf;
+
+import com.example.springpractice.task1.repository.IdempotencyRecordRepository;
+import com.example.springpractice.task3.filter.IdempotencyFilter;
+import com.example.springpractice.task3.service.DatabaseIdempotencyStore;
+import com.example.springpractice.task3.service.IdempotencyStore;
+import com.example.springpractice.task3.service.InMemoryIdempotencyStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Регистрация идемпотентной обработки создания фильмов.
+ * Фильтр стоит после фильтров безопасности (ключ привязан к пользователю), но перед ограничителем
+ * одновременных запросов: повтор, отданный из хранилища, не занимает разрешение.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "movie.idempotency", name = "enabled", havingValue = "true")
+public class IdempotencyConfiguration {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyProperties properties,
+                                             ObjectProvider<IdempotencyRecordRepository> repository) {
+        final IdempotencyStore memory = new InMemoryIdempotencyStore(properties.getTtl(), properties.getMaxEntries());
+        if (properties.getStore() == IdempotencyProperties.Store.DATABASE) {
+            return new DatabaseIdempotencyStore(repository.getObject(), memory, properties.getTtl());
+        }
+        return memory;
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyProperties properties,
+                                                                       IdempotencyStore idempotencyStore,
+                                                                       MeterRegistry meterRegistry) {
+        final FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(idempotencyStore, properties.getWaitTimeout(),
+                        (int) properties.getMaxResponseSize().toBytes(), meterRegistry));
+        registration.addUrlPatterns("/movie", "/movie/batch");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return registration;
+    }
+}
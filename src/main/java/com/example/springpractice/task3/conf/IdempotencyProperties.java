@@ -0,0 +1,57 @@
+package com.example.springpractice.task3.conf;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Настройки идемпотентного создания фильмов по заголовку Idempotency-Key.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Data
+@ConfigurationProperties(prefix = "movie.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Включает обработку заголовка Idempotency-Key для POST /movie и POST /movie/batch.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Где хранятся ответы: только в памяти экземпляра или еще и в БД, общей для всех экземпляров.
+     */
+    private Store store = Store.MEMORY;
+
+    /**
+     * Сколько хранится ответ на запрос с ключом.
+     */
+    private Duration ttl = Duration.ofHours(1);
+
+    /**
+     * Максимум ответов в памяти, самые старые вытесняются.
+     */
+    private long maxEntries = 100_000;
+
+    /**
+     * Ответы больше этого размера не сохраняются, и повтор запроса выполнится заново.
+     */
+    private DataSize maxResponseSize = DataSize.ofKilobytes(64);
+
+    /**
+     * Сколько повторный запрос ждет завершения выполняющегося запроса с тем же ключом, прежде чем получить 409.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Как часто из БД удаляются устаревшие ответы.
+     */
+    private Duration cleanupInterval = Duration.ofMinutes(10);
+
+    public enum Store {
+        MEMORY, DATABASE
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.springpractice.task3.conf;
+
+import jakarta.servlet.Filter;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.web.servlet.ServletContextInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+
+/**
+ * Исключения из ленивой инициализации (spring.main.lazy-initialization=true, профиль fast-start).
+ * Контроллеры, обработчики исключений и фильтры создаются при старте вместе со всеми зависимостями,
+ * поэтому первый запрос не ждет инициализации JPA и сервисов. Лениво создается только то,
+ * что запросам не нужно.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Configuration(proxyBeanMethods = false)
+public class LazyInitializationConfiguration {
+
+    /**
+     * Метод статический: фильтры читаются постпроцессором фабрики бинов до создания остальных бинов.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter webLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> AnnotatedElementUtils.hasAnnotation(beanType, Controller.class)
+                || AnnotatedElementUtils.hasAnnotation(beanType, ControllerAdvice.class)
+                || Filter.class.isAssignableFrom(beanType)
+                || ServletContextInitializer.class.isAssignableFrom(beanType);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.springpractice.task3.conf;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки обработки ошибок эндпоинтов фильмов.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Data
+@ConfigurationProperties(prefix = "movie.errors")
+public class MovieErrorProperties {
+
+    /**
+     * Отвечать на ошибки в формате RFC 7807 (application/problem+json) вместо {@code Response}.
+     * Ответ не включает параметры запроса и собирается без разбора запроса.
+     */
+    private boolean problemDetails = false;
+
+    /**
+     * Ошибка одного типа логируется не чаще раза в интервал, остальные только считаются
+     * и попадают в следующую запись лога количеством пропущенных.
+     */
+    private Duration logInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,47 @@
+package com.example.springpractice.task3.conf;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки асинхронного создания фильмов.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Data
+@ConfigurationProperties(prefix = "movie.jobs")
+public class MovieJobProperties {
+
+    /**
+     * Включает эндпоинты POST /movie/async и GET /movie/jobs/{id}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Потоков, создающих фильмы. Каждый занимает соединение из пула на время создания.
+     */
+    private int threads = 4;
+
+    /**
+     * Заданий, ожидающих свободного потока. Сверх этого запросы получают 503.
+     */
+    private int queueCapacity = 1000;
+
+    /**
+     * Сколько хранится состояние задания после последнего изменения.
+     */
+    private Duration resultTtl = Duration.ofMinutes(10);
+
+    /**
+     * Максимум хранимых заданий, самые старые вытесняются.
+     */
+    private long maxResults = 100_000;
+
+    /**
+     * Сколько ждать завершения задания в варианте с ожиданием, прежде чем вернуть 202.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,69 @@
+package com.example.springpractice.task3.conf;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки аутентификации.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Data
+@ConfigurationProperties(prefix = "movie.security")
+public class MovieSecurityProperties {
+
+    /**
+     * Стоимость BCrypt (log2 числа раундов). Пароли, захешированные с меньшей стоимостью,
+     * перехешируются при следующем успешном входе.
+     */
+    private int bcryptStrength = 10;
+
+    private CredentialCache credentialCache = new CredentialCache();
+
+    private Token token = new Token();
+
+    @Data
+    public static class CredentialCache {
+
+        /**
+         * Включает кэш проверенных учетных данных: повторный запрос с теми же логином и паролем не проверяет BCrypt.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Сколько живет запись. Смена пароля, блокировка и изменение ролей вступают в силу не позже этого срока.
+         */
+        private Duration ttl = Duration.ofMinutes(1);
+
+        private long maxEntries = 10_000;
+    }
+
+    @Data
+    public static class Token {
+
+        /**
+         * Включает подписанные токены: ответ на запрос с Basic содержит токен, который затем передается
+         * в заголовке Authorization: Bearer без проверки пароля.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Срок действия токена.
+         */
+        private Duration ttl = Duration.ofMinutes(15);
+
+        /**
+         * Ключ подписи в Base64, общий для всех экземпляров. Если не задан, ключ случайный
+         * и токены действительны только в выдавшем их экземпляре до его перезапуска.
+         */
+        private String secret;
+
+        /**
+         * Заголовок ответа, в котором выдается токен.
+         */
+        private String header = "X-Auth-Token";
+    }
+}
@@ -1,16 +1,34 @@
 package com.example.springpractice.task3.conf;
 
+import com.example.springpractice.task3.filter.SignedTokenAuthenticationFilter;
+import com.example.springpractice.task3.service.CachingAuthenticationProvider;
+import com.example.springpractice.task3.service.SignedTokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
-import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.security.SecureRandom;
+import java.util.Base64;
 
 /**
- * Веб конфигурация
+ * Веб конфигурация.
+ * Цепочка безопасности повторяет умолчания Spring Boot (health открыт, остальное - после входа через форму
+ * или HTTP Basic; перестроение индекса поиска - только для ADMIN) и добавляет быстрый путь аутентификации: кэш проверенных учетных данных и, по настройке,
+ * подписанные токены. Хеши паролей с устаревшей стоимостью BCrypt перехешируются при входе.
  *
  * @author Klim Ross
  * @since 2023.12.02
@@ -19,8 +37,8 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 public class WebSecurityConfigurer {
 
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder passwordEncoder(MovieSecurityProperties properties) {
+        return new BCryptPasswordEncoder(properties.getBcryptStrength());
     }
 
     @Bean
@@ -31,4 +49,58 @@ public class WebSecurityConfigurer {
                 .build();
         return new InMemoryUserDetailsManager(user);
     }
-}
\ No newline at end of file
+
+    @Bean
+    public AuthenticationProvider authenticationProvider(MovieSecurityProperties properties,
+                                                         PasswordEncoder passwordEncoder,
+                                                         InMemoryUserDetailsManager userDetailsService,
+                                                         MeterRegistry meterRegistry) {
+        final DaoAuthenticationProvider provider = new DaoAuthenticationProvider(passwordEncoder);
+        provider.setUserDetailsService(userDetailsService);
+        // перехеширование при входе, если стоимость хеша меньше настроенной
+        provider.setUserDetailsPasswordService(userDetailsService);
+        final MovieSecurityProperties.CredentialCache cache = properties.getCredentialCache();
+        if (!cache.isEnabled()) {
+            return provider;
+        }
+        return new CachingAuthenticationProvider(provider, cache.getTtl(), cache.getMaxEntries(), meterRegistry);
+    }
+
+    /**
+     * Только в веб приложении: без сервлетного контекста (бенчмарки, утилиты) нет {@link HttpSecurity}.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, MovieSecurityProperties properties,
+                                                   MeterRegistry meterRegistry) throws Exception {
+        http.authorizeHttpRequests(requests -> requests
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                // перестроение индекса поиска читает весь каталог
+                .requestMatchers("/movie/search/rebuild").hasRole("ADMIN")
+                .anyRequest().authenticated());
+        http.formLogin(Customizer.withDefaults());
+        http.httpBasic(Customizer.withDefaults());
+        final MovieSecurityProperties.Token token = properties.getToken();
+        if (token.isEnabled()) {
+            final byte[] key = token.getSecret() != null
+                    ? Base64.getDecoder().decode(token.getSecret())
+                    : randomKey();
+            final SignedTokenService tokenService = new SignedTokenService(key, token.getTtl());
+            http.addFilterAfter(new SignedTokenAuthenticationFilter(tokenService, token.getHeader(), meterRegistry),
+                    BasicAuthenticationFilter.class);
+            // браузер не подставляет Bearer сам, поэтому такие запросы не нуждаются в защите от CSRF
+            http.csrf(csrf -> csrf.ignoringRequestMatchers(request -> {
+                final String authorization = request.getHeader("Authorization");
+                return authorization != null && authorization.regionMatches(true, 0,
+                        SignedTokenAuthenticationFilter.BEARER, 0, SignedTokenAuthenticationFilter.BEARER.length());
+            }));
+        }
+        return http.build();
+    }
+
+    private static byte[] randomKey() {
+        final byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return key;
+    }
+}
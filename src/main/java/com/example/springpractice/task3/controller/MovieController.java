@@ -1,22 +1,43 @@
 package com.example.springpractice.task3.controller;
 
 import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.dto.MovieCursor;
+import com.example.springpractice.task1.dto.MovieFilter;
+import com.example.springpractice.task1.dto.MovieImportResult;
+import com.example.springpractice.task1.service.MovieExportService;
+import com.example.springpractice.task1.service.MovieGroupCommitter;
+import com.example.springpractice.task1.service.MovieImportFormat;
+import com.example.springpractice.task1.service.MovieImportService;
+import com.example.springpractice.task1.service.MovieQueryService;
 import com.example.springpractice.task1.service.MovieService;
 import com.example.springpractice.task3.dto.Response;
+import com.example.springpractice.task3.exception.InvalidMovieRequestException;
 import com.example.springpractice.task3.exception.MovieLabelException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.TransactionStatus;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
@@ -33,6 +54,100 @@ public class MovieController {
     @Autowired
     private MovieService movieService;
 
+    /**
+     * Групповое создание фильмов, если оно включено (movie.group-commit.enabled).
+     */
+    @Autowired(required = false)
+    private MovieGroupCommitter movieGroupCommitter;
+
+    @Autowired
+    private MovieQueryService movieQueryService;
+
+    @Autowired
+    private MovieExportService movieExportService;
+
+    @Autowired
+    private MovieImportService movieImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Ендпоинт для получения списка фильмов, от новых к старым.
+     * Страницы выбираются по позиции (keyset), а не по смещению, ответ пишется в поток по мере чтения фильмов из БД:
+     * {"items": [...], "next": "позиция следующей страницы или null"}.
+     *
+     * @param namePrefix начало названия фильма.
+     * @param label      лейбл фильма.
+     * @param after      позиция из поля next предыдущей страницы.
+     * @param size       размер страницы.
+     */
+    @GetMapping(produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> list(@RequestParam(required = false) String namePrefix,
+                                                      @RequestParam(required = false) String label,
+                                                      @RequestParam(required = false) String after,
+                                                      @RequestParam(defaultValue = "50") int size) {
+        if (size < 1 || size > MovieQueryService.MAX_PAGE_SIZE) {
+            throw new InvalidMovieRequestException("Размер страницы должен быть от 1 до " + MovieQueryService.MAX_PAGE_SIZE);
+        }
+        final MovieFilter filter = new MovieFilter(namePrefix, label);
+        final MovieCursor cursor = after == null ? null : MovieCursor.decode(after);
+
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartObject();
+                json.writeArrayFieldStart("items");
+                MovieCursor next = movieQueryService.forEachInPage(filter, cursor, size, item -> {
+                    try {
+                        json.writeObject(item);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                json.writeEndArray();
+                json.writeStringField("next", next == null ? null : next.encode());
+                json.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Ендпоинт для выгрузки всего каталога фильмов с авторами в NDJSON или CSV.
+     * Фильмы пишутся в ответ по мере чтения из БД, память не зависит от размера каталога.
+     * Ответ сжимается gzip, если клиент его принимает.
+     * <p>
+     * Выгрузка пишется в потоке запроса, а не через {@link StreamingResponseBody}: выгрузка большого каталога
+     * может длиться дольше таймаута асинхронного запроса.
+     *
+     * @param format         ndjson или csv.
+     * @param acceptEncoding заголовок Accept-Encoding запроса.
+     */
+    @GetMapping("/export")
+    public void export(@RequestParam(defaultValue = "ndjson") String format,
+                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                       HttpServletResponse response) throws IOException {
+        final MovieExportFormat exportFormat = MovieExportFormat.of(format);
+        final boolean gzip = acceptsGzip(acceptEncoding);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=movies." + exportFormat.getExtension());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        try (OutputStream out = gzip ? new GZIPOutputStream(response.getOutputStream(), 8192) : response.getOutputStream();
+             MovieExportFormat.MovieExportWriter writer = exportFormat.open(out, objectMapper)) {
+            movieExportService.export(movie -> {
+                try {
+                    writer.write(movie);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
     /**
      * Эндпоинт для проверки обработки ошибки.
      * Бросается исключение при совпадении значения параметра, ожидается последующая обработка и отправка ответа через обработчик.
@@ -43,26 +158,78 @@ public class MovieController {
     public ResponseEntity<Response> movieWithException(@RequestParam(required = true, defaultValue = "false") boolean exception) {
         // Если прислали флаг exception = true, то кидаем исключение с описанием "Ваши проблемы"
         if (exception) {
-            throw new IllegalArgumentException("Что-то не так");
+            throw new InvalidMovieRequestException("Что-то не так");
         }
-        return new ResponseEntity<>(new Response("OK"), HttpStatus.OK);
+        return new ResponseEntity<>(Response.OK, HttpStatus.OK);
     }
 
     /**
      * Ендпоинт для проверки сохранения фильма.
      * Вызывается сервис сохранения фильма с последующим присвоением лейбла.
      * Ожидается, что при возникновении серверных ошибок отработаем excepptionHandler с отправкой соответвующего response.
+     * <p>
+     * Транзакцию открывает сервис, а не контроллер: при групповой фиксации поток запроса не держит
+     * соединение, пока ждет фиксации своей группы.
      *
      * @param movieName название фильма.
      */
-    @Transactional
     @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
     public ResponseEntity<Response> create(@RequestBody final String movieName) {
-        TransactionStatus transactionStatus = TransactionAspectSupport.currentTransactionStatus();
-        Movie movie = movieService.createMovie(movieName);
+        Movie movie = movieGroupCommitter != null
+                ? movieGroupCommitter.createMovie(movieName)
+                : movieService.createMovie(movieName);
+
+        return new ResponseEntity<>(Response.created(movie.getId().toString()), HttpStatus.CREATED);
+    }
+
+    /**
+     * Ендпоинт для пакетного сохранения фильмов.
+     * Все фильмы сохраняются в рамках одной транзакции JDBC батчами, в ответе - идентификаторы созданных фильмов через запятую.
+     *
+     * @param movieNames названия фильмов.
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Response> createBatch(@RequestBody final List<String> movieNames) {
+        if (movieNames.isEmpty()) {
+            throw new InvalidMovieRequestException("Список фильмов пуст");
+        }
+        List<Long> ids = movieService.createMovies(movieNames);
 
-        Response created = new Response("CREATED");
-        created.setMessageAdditional(movie.getId().toString());
-        return new ResponseEntity<>(created, HttpStatus.CREATED);
+        return new ResponseEntity<>(Response.created(ids.stream().map(String::valueOf).collect(Collectors.joining(","))),
+                HttpStatus.CREATED);
+    }
+
+    /**
+     * Ендпоинт для массового импорта фильмов с авторами из файла NDJSON или CSV (колонки name, label, authors через ';').
+     * Тело запроса читается потоком, фильмы загружаются пачками. Если импорт прервался,
+     * повторная загрузка того же файла с тем же importId пропускает уже загруженные пачки.
+     * Идентификатор обязателен: без него повтор запроса клиентом не продолжил бы импорт, а загрузил бы файл заново.
+     *
+     * @param importId идентификатор импорта, одинаковый для всех попыток загрузки одного файла.
+     * @param contentType тип содержимого: application/x-ndjson или text/csv.
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<MovieImportResult> importMovies(@RequestParam String importId,
+                                                          @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                          HttpServletRequest request) throws IOException {
+        if (importId.isBlank()) {
+            throw new InvalidMovieRequestException("Не задан идентификатор импорта importId");
+        }
+        final MovieImportResult result =
+                movieImportService.importMovies(importId, MovieImportFormat.fromContentType(contentType), request.getInputStream());
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            final String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -2,14 +2,21 @@ package com.example.springpractice.task3.controller;
 
 import com.example.springpractice.task1.domain.Movie;
 import com.example.springpractice.task1.repository.MovieRepository;
+import com.example.springpractice.task3.conf.MovieErrorProperties;
 import com.example.springpractice.task3.dto.Response;
+import com.example.springpractice.task3.exception.ErrorLogSampler;
 import com.example.springpractice.task3.exception.MovieLabelException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,8 +28,11 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.net.URI;
 import java.security.Principal;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -35,9 +45,33 @@ import java.util.stream.Collectors;
 @Slf4j
 public class MovieExceptionHandler extends ResponseEntityExceptionHandler {
 
+    /**
+     * Заголовки ответов об ошибках не меняются от запроса к запросу - создаются один раз и только для чтения.
+     */
+    private static final HttpHeaders JSON_HEADERS = readOnlyHeaders("application/json;charset=utf8");
+    private static final HttpHeaders PROBLEM_HEADERS = readOnlyHeaders(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+
+    private static final URI BAD_REQUEST_TYPE = URI.create("urn:movie:problem:bad-request");
+    private static final URI LABEL_FAILED_TYPE = URI.create("urn:movie:problem:label-failed");
+
     @Autowired
     private MovieRepository movieRepository;
 
+    @Autowired
+    private MovieErrorProperties errorProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ErrorLogSampler errorLogSampler;
+
+    private final Map<Class<?>, Counter> errorCounters = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        errorLogSampler = new ErrorLogSampler(errorProperties.getLogInterval());
+    }
+
     /**
      * Обработка ошибок типа {@link IllegalArgumentException}.
      * В рамках тестого примера возвращаем кастомный ответ клиенту, где в качетсве сообщения рассказываем ему в чем же он не прав.
@@ -46,7 +80,19 @@ public class MovieExceptionHandler extends ResponseEntityExceptionHandler {
      */
     @ExceptionHandler(value = {IllegalArgumentException.class})
     protected ResponseEntity<Object> handleIllegalArgs(RuntimeException ex, WebRequest request, HttpServletResponse resp, HttpSession session, Principal principle) {
-        log.error("Обрабатываем ошибку", ex);
+        countError(ex, HttpStatus.CONFLICT);
+        // ошибка клиента: стек вызовов для разбора не нужен, достаточно сообщения
+        final long skipped = errorLogSampler.sample(ex.getClass());
+        if (skipped != ErrorLogSampler.SKIP) {
+            log.warn("Обрабатываем ошибку клиента: {} (похожих ошибок пропущено в логе: {})", ex.getMessage(), skipped);
+        }
+
+        if (errorProperties.isProblemDetails()) {
+            final ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+            problem.setType(BAD_REQUEST_TYPE);
+            problem.setTitle("Некорректный запрос");
+            return handleExceptionInternal(ex, problem, PROBLEM_HEADERS, HttpStatus.CONFLICT, request);
+        }
 
         //из обработчика есть доступ к изначальному запросу - достаним все параметры и вернем их обратно
         String params = request.getParameterMap().keySet().stream()
@@ -61,12 +107,8 @@ public class MovieExceptionHandler extends ResponseEntityExceptionHandler {
         String customMessage = currentPrincipalName + ", Ваши ожидания - Ваши проблемы. Не нужно было присылать параметры: \n" + params;
         Response response = new Response(ex.getMessage(), customMessage);
 
-        // при необходимости добавляем необходимые атрибуты http-ответа
-        HttpHeaders httpHeaders = new HttpHeaders();
-        httpHeaders.add("Content-Type", "application/json;charset=utf8");
-
         // используем сприговый сервис для построения ResponseEntity
-        return handleExceptionInternal(ex, response, httpHeaders, HttpStatus.CONFLICT, request);
+        return handleExceptionInternal(ex, response, JSON_HEADERS, HttpStatus.CONFLICT, request);
     }
 
     /**
@@ -77,15 +119,42 @@ public class MovieExceptionHandler extends ResponseEntityExceptionHandler {
      */
     @ExceptionHandler(value = {MovieLabelException.class})
     protected ResponseEntity<Object> handleServerException(MovieLabelException ex, WebRequest request) {
-        // составляем кастомный респонс, где опишем ошибку сервера
-        Response response = new Response(ex.getMessage());
-        response.setMessageAdditional("Id фильма, если пригодится: " + ex.getMovieId());
+        countError(ex, HttpStatus.INTERNAL_SERVER_ERROR);
+        final long skipped = errorLogSampler.sample(ex.getClass());
+        if (skipped != ErrorLogSampler.SKIP) {
+            log.error("Ошибка присвоения лейбла фильму {} (похожих ошибок пропущено в логе: {})", ex.getMovieId(), skipped, ex);
+        }
 
-        // при необходимости добавляем необходимые атрибуты http-ответа
-        HttpHeaders httpHeaders = new HttpHeaders();
-        httpHeaders.add("Content-Type", "application/json;charset=utf8");
+        if (errorProperties.isProblemDetails()) {
+            final ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage());
+            problem.setType(LABEL_FAILED_TYPE);
+            problem.setTitle("Ошибка присвоения лейбла");
+            problem.setProperty("movieId", ex.getMovieId());
+            return handleExceptionInternal(ex, problem, PROBLEM_HEADERS, HttpStatus.INTERNAL_SERVER_ERROR, request);
+        }
+
+        // составляем кастомный респонс, где опишем ошибку сервера
+        Response response = new Response(ex.getMessage(), "Id фильма, если пригодится: " + ex.getMovieId());
 
         // используем сприговый сервис для построения ResponseEntity
-        return handleExceptionInternal(ex, response, httpHeaders, HttpStatus.INTERNAL_SERVER_ERROR, request);
+        return handleExceptionInternal(ex, response, JSON_HEADERS, HttpStatus.INTERNAL_SERVER_ERROR, request);
+    }
+
+    /**
+     * Счетчик ошибок по типу исключения, счетчики кэшируются - без поиска в реестре метрик на каждую ошибку.
+     */
+    private void countError(Exception ex, HttpStatus status) {
+        errorCounters.computeIfAbsent(ex.getClass(), type -> Counter.builder("movie.errors")
+                        .description("Ошибки эндпоинтов фильмов")
+                        .tag("exception", type.getSimpleName())
+                        .tag("status", String.valueOf(status.value()))
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private static HttpHeaders readOnlyHeaders(String contentType) {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_TYPE, contentType);
+        return HttpHeaders.readOnlyHttpHeaders(headers);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,123 @@
+package com.example.springpractice.task3.controller;
+
+import com.example.springpractice.task1.dto.MovieExport;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Формат выгрузки каталога фильмов.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public enum MovieExportFormat {
+
+    /**
+     * Фильм - JSON объект на отдельной строке.
+     */
+    NDJSON("application/x-ndjson", "ndjson") {
+        @Override
+        MovieExportWriter open(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            final JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+            return new MovieExportWriter() {
+                @Override
+                public void write(MovieExport movie) throws IOException {
+                    json.writeObject(movie);
+                    json.writeRaw('\n');
+                }
+
+                @Override
+                public void close() throws IOException {
+                    json.close();
+                }
+            };
+        }
+    },
+
+    /**
+     * CSV с заголовком, авторы фильма - через точку с запятой в одной колонке.
+     */
+    CSV("text/csv", "csv") {
+        @Override
+        MovieExportWriter open(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            final Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            csv.write("id,name,label,created_at,authors\r\n");
+            return new MovieExportWriter() {
+                @Override
+                public void write(MovieExport movie) throws IOException {
+                    csv.write(String.valueOf(movie.id()));
+                    csv.write(',');
+                    csv.write(field(movie.name()));
+                    csv.write(',');
+                    csv.write(field(movie.label()));
+                    csv.write(',');
+                    csv.write(movie.createdAt() == null ? "" : movie.createdAt().toString());
+                    csv.write(',');
+                    csv.write(field(String.join(";", movie.authors())));
+                    csv.write("\r\n");
+                }
+
+                @Override
+                public void close() throws IOException {
+                    csv.close();
+                }
+            };
+        }
+    };
+
+    private final String contentType;
+    private final String extension;
+
+    MovieExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static MovieExportFormat of(String format) {
+        try {
+            return valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Неизвестный формат выгрузки: " + format);
+        }
+    }
+
+    abstract MovieExportWriter open(OutputStream out, ObjectMapper objectMapper) throws IOException;
+
+    /**
+     * Поле CSV по RFC 4180: в кавычках, если содержит разделитель, кавычку или перевод строки.
+     */
+    private static String field(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Запись фильмов выгрузки в выходной поток.
+     */
+    interface MovieExportWriter extends Closeable {
+
+        void write(MovieExport movie) throws IOException;
+    }
+}
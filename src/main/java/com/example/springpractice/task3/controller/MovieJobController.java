@@ -0,0 +1,109 @@
+package com.example.springpractice.task3.controller;
+
+import com.example.springpractice.task3.conf.MovieJobProperties;
+import com.example.springpractice.task3.dto.MovieJobStatus;
+import com.example.springpractice.task3.service.MovieJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.net.URI;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Контроллер асинхронного создания фильмов.
+ * Запрос на создание принимается сразу (202 Accepted), а состояние задания опрашивается по адресу из заголовка Location.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@RestController
+@RequestMapping("/movie")
+@ConditionalOnProperty(prefix = "movie.jobs", name = "enabled", havingValue = "true")
+public class MovieJobController {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    @Autowired
+    private MovieJobService movieJobService;
+
+    @Autowired
+    private MovieJobProperties properties;
+
+    /**
+     * Ендпоинт для асинхронного создания фильма.
+     * Возвращает 202 и состояние задания, в заголовке Location - адрес для опроса.
+     * Если очередь заданий заполнена - 503 с заголовком Retry-After.
+     *
+     * @param movieName название фильма.
+     */
+    @PostMapping(value = "/async", consumes = {MediaType.APPLICATION_JSON_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<MovieJobStatus> createAsync(@RequestBody final String movieName) {
+        try {
+            return accepted(movieJobService.submit(movieName));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .build();
+        }
+    }
+
+    /**
+     * Вариант асинхронного создания для клиентов, которые хотят дождаться результата.
+     * Поток запроса освобождается на время ожидания; если задание не успело завершиться за
+     * {@link MovieJobProperties#getWaitTimeout()}, ответ такой же, как без ожидания.
+     *
+     * @param movieName название фильма.
+     */
+    @PostMapping(value = "/async", params = "wait=true",
+            consumes = {MediaType.APPLICATION_JSON_VALUE}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    public DeferredResult<ResponseEntity<MovieJobStatus>> createAndWait(@RequestBody final String movieName) {
+        final ResponseEntity<MovieJobStatus> submitted = createAsync(movieName);
+        final MovieJobStatus status = submitted.getBody();
+        if (status == null) {
+            final DeferredResult<ResponseEntity<MovieJobStatus>> rejected = new DeferredResult<>();
+            rejected.setResult(submitted);
+            return rejected;
+        }
+        return await(status);
+    }
+
+    /**
+     * Ендпоинт для получения состояния задания на создание фильма.
+     * 404, если задания нет или его результат уже не хранится.
+     *
+     * @param id идентификатор задания.
+     */
+    @GetMapping(value = "/jobs/{id}", produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<MovieJobStatus> job(@PathVariable String id) {
+        return ResponseEntity.of(movieJobService.find(id));
+    }
+
+    private DeferredResult<ResponseEntity<MovieJobStatus>> await(MovieJobStatus submitted) {
+        final DeferredResult<ResponseEntity<MovieJobStatus>> result = new DeferredResult<>(
+                properties.getWaitTimeout().toMillis(),
+                () -> accepted(movieJobService.find(submitted.id()).orElse(submitted)));
+        movieJobService.completion(submitted.id()).ifPresentOrElse(
+                completion -> completion.thenAccept(status -> result.setResult(ResponseEntity.ok(status))),
+                () -> result.setResult(accepted(submitted)));
+        return result;
+    }
+
+    private static ResponseEntity<MovieJobStatus> accepted(MovieJobStatus status) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/movie/jobs/" + status.id()))
+                .body(status);
+    }
+}
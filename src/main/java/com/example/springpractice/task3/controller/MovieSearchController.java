@@ -0,0 +1,108 @@
+package com.example.springpractice.task3.controller;
+
+import com.example.springpractice.task1.conf.MovieSearchProperties;
+import com.example.springpractice.task1.dto.MovieSearchHit;
+import com.example.springpractice.task1.search.MovieSearchMode;
+import com.example.springpractice.task1.service.MovieSearchService;
+import com.example.springpractice.task3.dto.Response;
+import com.example.springpractice.task3.exception.InvalidMovieRequestException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Контроллер полнотекстового поиска фильмов.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@RestController
+@RequestMapping("/movie")
+@ConditionalOnProperty(prefix = "movie.search", name = "enabled", havingValue = "true")
+public class MovieSearchController {
+
+    private static final String REBUILDING = "REBUILDING";
+    private static final String REBUILT = "REBUILT";
+    private static final String FAILED = "FAILED";
+    private static final URI REBUILD_LOCATION = URI.create("/movie/search/rebuild");
+
+    @Autowired
+    private MovieSearchService movieSearchService;
+
+    @Autowired
+    private MovieSearchProperties properties;
+
+    /**
+     * Ендпоинт для поиска фильмов по словам названия и имени автора, по убыванию релевантности.
+     * Нужен хотя бы один из параметров q и author; если заданы оба, фильм должен подходить под оба.
+     *
+     * @param q      слова названия.
+     * @param author слова имени автора.
+     * @param mode   prefix - слова запроса как начала слов (нужно хотя бы одно слово от двух букв), fuzzy - слова с опечатками.
+     * @param size   максимальное количество фильмов.
+     */
+    @GetMapping(value = "/search", produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<MovieSearchHit>> search(@RequestParam(required = false) String q,
+                                                       @RequestParam(required = false) String author,
+                                                       @RequestParam(defaultValue = "prefix") String mode,
+                                                       @RequestParam(defaultValue = "20") int size) {
+        if ((q == null || q.isBlank()) && (author == null || author.isBlank())) {
+            throw new InvalidMovieRequestException("Не задан ни текст поиска q, ни автор author");
+        }
+        if (size < 1 || size > properties.getMaxResults()) {
+            throw new InvalidMovieRequestException("Размер страницы должен быть от 1 до " + properties.getMaxResults());
+        }
+        try {
+            return new ResponseEntity<>(movieSearchService.search(q, author, MovieSearchMode.of(mode), size), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            // неизвестный режим или слишком короткие слова - ошибка клиента, стек вызовов не нужен
+            throw new InvalidMovieRequestException(e.getMessage());
+        }
+    }
+
+    /**
+     * Ендпоинт для перестроения индекса поиска по всему каталогу в БД, например после импорта. Только для ADMIN.
+     * Перестроение идет в фоне: ответ 202, состояние опрашивается по адресу из заголовка Location.
+     * Если перестроение уже идет - 409. Пока индекс строится, поиск отвечает по прежнему индексу.
+     */
+    @PostMapping(value = "/search/rebuild", produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<Response> rebuild() {
+        return movieSearchService.rebuildAsync()
+                .map(started -> ResponseEntity.accepted().location(REBUILD_LOCATION).body(new Response(REBUILDING)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).body(new Response(REBUILDING)));
+    }
+
+    /**
+     * Ендпоинт для получения состояния последнего перестроения индекса. Только для ADMIN.
+     * REBUILDING - идет, REBUILT - завершено (количество фильмов в индексе), FAILED - упало (сообщение ошибки).
+     * 404, если перестроение не запускалось.
+     */
+    @GetMapping(value = "/search/rebuild", produces = APPLICATION_JSON_VALUE)
+    public ResponseEntity<Response> rebuildStatus() {
+        return ResponseEntity.of(movieSearchService.lastRebuild().map(MovieSearchController::rebuildStatus));
+    }
+
+    private static Response rebuildStatus(CompletableFuture<Long> rebuild) {
+        if (!rebuild.isDone()) {
+            return new Response(REBUILDING);
+        }
+        try {
+            return new Response(REBUILT, String.valueOf(rebuild.join()));
+        } catch (CompletionException e) {
+            return new Response(FAILED, e.getCause().getMessage());
+        }
+    }
+}
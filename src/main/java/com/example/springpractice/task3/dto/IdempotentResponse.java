@@ -0,0 +1,11 @@
+package com.example.springpractice.task3.dto;
+
+/**
+ * Сохраненный ответ на запрос с ключом идемпотентности - отдается повторным запросам без обращения к сервисам.
+ *
+ * @param location заголовок Location ответа, если был.
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public record IdempotentResponse(int status, String contentType, String location, byte[] body) {
+}
@@ -0,0 +1,22 @@
+package com.example.springpractice.task3.dto;
+
+import java.time.Instant;
+
+/**
+ * Состояние задания на создание фильма.
+ *
+ * @param movieId идентификатор созданного фильма, когда задание выполнено.
+ * @param error   сообщение об ошибке, когда задание упало.
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public record MovieJobStatus(String id, State state, Long movieId, String error, Instant submittedAt, Instant completedAt) {
+
+    public enum State {
+        PENDING, RUNNING, DONE, FAILED
+    }
+
+    public boolean isCompleted() {
+        return state == State.DONE || state == State.FAILED;
+    }
+}
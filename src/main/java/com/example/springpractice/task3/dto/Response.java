@@ -1,25 +1,25 @@
 package com.example.springpractice.task3.dto;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
 /**
- * Дто для респонсов
+ * Дто для респонсов. Неизменяемое: постоянные ответы создаются один раз и переиспользуются.
  *
  * @author Klim Ross
  * @since 2023.12.02
  */
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
-public class Response {
+public record Response(String message, String messageAdditional) {
 
-    private String message;
+    public static final Response OK = new Response("OK");
 
-    private String messageAdditional;
+    private static final String CREATED = "CREATED";
 
     public Response(String message) {
-        this.message = message;
+        this(message, null);
+    }
+
+    /**
+     * Ответ на создание фильмов с их идентификаторами.
+     */
+    public static Response created(String ids) {
+        return new Response(CREATED, ids);
     }
-}
\ No newline at end of file
+}
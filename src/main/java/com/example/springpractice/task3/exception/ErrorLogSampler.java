@@ -0,0 +1,51 @@
+package com.example.springpractice.task3.exception;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Прореживание логов ошибок: ошибка каждого типа пропускается в лог не чаще раза в интервал,
+ * так всплеск одинаковых ошибок не превращается во всплеск записи логов.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public class ErrorLogSampler {
+
+    /**
+     * Результат {@link #sample(Class)} для ошибки, которую логировать не нужно.
+     */
+    public static final long SKIP = -1;
+
+    private final long intervalNanos;
+    private final Map<Class<?>, Window> windows = new ConcurrentHashMap<>();
+
+    public ErrorLogSampler(Duration interval) {
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * Решение, логировать ли очередную ошибку данного типа.
+     *
+     * @return количество пропущенных ошибок этого типа с прошлой записи в лог, либо {@link #SKIP}
+     */
+    public long sample(Class<?> errorType) {
+        final Window window = windows.computeIfAbsent(errorType, type -> new Window());
+        final long now = System.nanoTime();
+        final long next = window.nextLogAt.get();
+        if (now - next >= 0 && window.nextLogAt.compareAndSet(next, now + intervalNanos)) {
+            return window.skipped.sumThenReset();
+        }
+        window.skipped.increment();
+        return SKIP;
+    }
+
+    private static final class Window {
+
+        private final AtomicLong nextLogAt = new AtomicLong(System.nanoTime());
+        private final LongAdder skipped = new LongAdder();
+    }
+}
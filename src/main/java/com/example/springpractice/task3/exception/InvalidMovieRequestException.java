@@ -0,0 +1,21 @@
+package com.example.springpractice.task3.exception;
+
+/**
+ * Ошибка клиента в запросе к фильмам: некорректные параметры или тело запроса.
+ * Ожидаемая ошибка, поэтому стек вызовов не собирается - он не нужен для разбора и дорого стоит при всплеске
+ * плохих запросов. Обрабатывается как {@link IllegalArgumentException}.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public class InvalidMovieRequestException extends IllegalArgumentException {
+
+    public InvalidMovieRequestException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
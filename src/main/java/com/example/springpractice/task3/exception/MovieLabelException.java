@@ -37,4 +37,16 @@ public class MovieLabelException extends RuntimeException {
         super(message);
         this.movieId = movieId;
     }
+
+    protected MovieLabelException(String message, String movieId, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.movieId = movieId;
+    }
+
+    /**
+     * Ошибка без стека вызовов - для ожидаемых отказов, когда место возникновения известно заранее.
+     */
+    public static MovieLabelException withoutStackTrace(String message, String movieId) {
+        return new MovieLabelException(message, movieId, false);
+    }
 }
\ No newline at end of file
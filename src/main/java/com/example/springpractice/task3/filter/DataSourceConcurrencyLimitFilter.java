@@ -0,0 +1,78 @@
+package com.example.springpractice.task3.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничитель одновременно обрабатываемых запросов, согласованный с пулом соединений.
+ * На виртуальных потоках количество запросов в обработке больше не ограничено пулом потоков Tomcat,
+ * и без ограничителя все они встают в очередь за соединением к БД, держа открытые транзакции и память.
+ * Запрос, не дождавшийся разрешения за acquireTimeout, получает 503 с Retry-After.
+ * <p>
+ * Разрешение держится только на время основной обработки запроса: асинхронная часть ответа
+ * (например, потоковая выдача списка) выполняется уже без него.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Slf4j
+public class DataSourceConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final Counter rejected;
+
+    public DataSourceConcurrencyLimitFilter(int maxConcurrent, Duration acquireTimeout, MeterRegistry registry) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.rejected = Counter.builder("movie.concurrency.rejected")
+                .description("Запросы, не дождавшиеся разрешения ограничителя")
+                .register(registry);
+        Gauge.builder("movie.concurrency.in.flight", permits, semaphore -> maxConcurrent - semaphore.availablePermits())
+                .description("Запросы, обрабатываемые в данный момент")
+                .register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        final boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(response);
+            return;
+        }
+        if (!acquired) {
+            reject(response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void reject(HttpServletResponse response) {
+        rejected.increment();
+        log.warn("Превышен лимит одновременных запросов, запрос отклонен");
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.springpractice.task3.filter;
+
+import com.example.springpractice.task3.dto.IdempotentResponse;
+import com.example.springpractice.task3.service.IdempotencyStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Идемпотентная обработка POST запросов с заголовком {@value #IDEMPOTENCY_KEY}.
+ * <ul>
+ *     <li>успешный (2xx) ответ на первый запрос с ключом сохраняется в {@link IdempotencyStore};</li>
+ *     <li>повтор с тем же ключом получает сохраненный ответ с заголовком {@value #REPLAYED} - без вызова контроллера
+ *     и обращения к сервисам;</li>
+ *     <li>повтор, пришедший, пока первый запрос еще выполняется на этом экземпляре, ждет его результата;</li>
+ *     <li>неуспешный ответ не сохраняется: повтор выполнится заново.</li>
+ * </ul>
+ * Ключ действует в пределах пользователя, метода и пути запроса - разные пользователи с одинаковым ключом не получат
+ * чужой ответ. Тело повторного запроса с тем же ключом не сравнивается с первым.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String REPLAYED = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final long waitTimeoutNanos;
+    private final int maxResponseSize;
+    private final Map<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter coalesced;
+
+    public IdempotencyFilter(IdempotencyStore store, Duration waitTimeout, int maxResponseSize, MeterRegistry registry) {
+        this.store = store;
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+        this.maxResponseSize = maxResponseSize;
+        this.executed = counter(registry, "executed");
+        this.replayed = counter(registry, "replayed");
+        this.coalesced = counter(registry, "coalesced");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        final String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(),
+                    "Заголовок " + IDEMPOTENCY_KEY + " должен быть непустым и не длиннее " + MAX_KEY_LENGTH + " символов");
+            return;
+        }
+        final String key = scopedKey(request, idempotencyKey);
+        while (true) {
+            IdempotentResponse stored = store.find(key).orElse(null);
+            if (stored != null) {
+                replayed.increment();
+                replay(stored, response);
+                return;
+            }
+            final CompletableFuture<IdempotentResponse> execution = new CompletableFuture<>();
+            final CompletableFuture<IdempotentResponse> running = inFlight.putIfAbsent(key, execution);
+            if (running == null) {
+                // первый запрос мог завершиться между чтением хранилища и регистрацией выполнения
+                stored = store.find(key).orElse(null);
+                if (stored == null) {
+                    execute(key, execution, request, response, filterChain);
+                    return;
+                }
+                inFlight.remove(key, execution);
+                execution.complete(stored);
+                replayed.increment();
+                replay(stored, response);
+                return;
+            }
+            stored = await(running, response);
+            if (response.isCommitted()) {
+                return;
+            }
+            if (stored != null) {
+                coalesced.increment();
+                replay(stored, response);
+                return;
+            }
+            // первый запрос завершился неуспешно - выполняем свой
+        }
+    }
+
+    private void execute(String key, CompletableFuture<IdempotentResponse> execution, HttpServletRequest request,
+                         HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        executed.increment();
+        final ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        IdempotentResponse result = null;
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (HttpStatus.valueOf(wrapper.getStatus()).is2xxSuccessful() && !request.isAsyncStarted()
+                    && wrapper.getContentSize() <= maxResponseSize) {
+                result = new IdempotentResponse(wrapper.getStatus(), wrapper.getContentType(),
+                        wrapper.getHeader(HttpHeaders.LOCATION), wrapper.getContentAsByteArray());
+                store.save(key, result);
+            }
+        } finally {
+            inFlight.remove(key, execution);
+            execution.complete(result);
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private IdempotentResponse await(CompletableFuture<IdempotentResponse> running, HttpServletResponse response)
+            throws IOException {
+        try {
+            return running.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Запрос с тем же ключом идемпотентности все еще выполняется");
+            response.setStatus(HttpStatus.CONFLICT.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.flushBuffer();
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private static void replay(IdempotentResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        response.setHeader(REPLAYED, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static String scopedKey(HttpServletRequest request, String idempotencyKey) {
+        final Principal principal = request.getUserPrincipal();
+        return (principal != null ? principal.getName() : "") + ':' + request.getMethod() + ':'
+                + request.getRequestURI() + ':' + idempotencyKey;
+    }
+
+    private static Counter counter(MeterRegistry registry, String outcome) {
+        return Counter.builder("movie.idempotency.requests")
+                .description("Запросы с ключом идемпотентности")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
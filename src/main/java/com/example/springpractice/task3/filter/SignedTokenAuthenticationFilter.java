@@ -0,0 +1,83 @@
+package com.example.springpractice.task3.filter;
+
+import com.example.springpractice.task3.service.SignedTokenService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Аутентификация по подписанному токену. Стоит в цепочке безопасности после фильтра HTTP Basic:
+ * <ul>
+ *     <li>запрос с Authorization: Bearer аутентифицируется по токену, пароль не проверяется;
+ *     недействительный токен - 401;</li>
+ *     <li>на запрос, успешно прошедший Basic, в ответе выдается новый токен в заголовке header.</li>
+ * </ul>
+ * Счетчик movie.security.tokens с тегом result: issued, accepted, rejected.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public class SignedTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String BEARER = "Bearer ";
+    private static final String BASIC = "Basic ";
+
+    private final SignedTokenService tokenService;
+    private final String header;
+    private final Counter issued;
+    private final Counter accepted;
+    private final Counter rejected;
+
+    public SignedTokenAuthenticationFilter(SignedTokenService tokenService, String header, MeterRegistry registry) {
+        this.tokenService = tokenService;
+        this.header = header;
+        this.issued = tokensCounter(registry, "issued");
+        this.accepted = tokensCounter(registry, "accepted");
+        this.rejected = tokensCounter(registry, "rejected");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        final String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            final Authentication authentication = tokenService.verify(authorization.substring(BEARER.length()).trim());
+            if (authentication == null) {
+                rejected.increment();
+                SecurityContextHolder.clearContext();
+                response.sendError(HttpStatus.UNAUTHORIZED.value());
+                return;
+            }
+            accepted.increment();
+            final SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(authentication);
+            SecurityContextHolder.setContext(context);
+        } else if (authorization != null && authorization.regionMatches(true, 0, BASIC, 0, BASIC.length())) {
+            final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication instanceof UsernamePasswordAuthenticationToken && authentication.isAuthenticated()) {
+                issued.increment();
+                response.setHeader(header, tokenService.issue(authentication));
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static Counter tokensCounter(MeterRegistry registry, String result) {
+        return Counter.builder("movie.security.tokens")
+                .description("Подписанные токены: выданные, принятые и отклоненные")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -34,6 +34,6 @@ public class MovieCreatedEventProcessor {
     @EventListener
     public void processMovieCreated(MovieCreatedEvent event) {
         String message = "Фильм то сохранили, но лейбл присвоить не удалось.";
-        throw new MovieLabelException(message, event.getMovie().getId().toString());
+        throw MovieLabelException.withoutStackTrace(message, event.getMovieId().toString());
     }
 }
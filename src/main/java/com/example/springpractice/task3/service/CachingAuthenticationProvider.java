@@ -0,0 +1,103 @@
+package com.example.springpractice.task3.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Кэш успешно проверенных логинов и паролей поверх провайдера с BCrypt.
+ * Ключ записи - HMAC-SHA256 логина и пароля на случайном ключе экземпляра: сам пароль не хранится,
+ * а ключ из дампа памяти нельзя перебирать без ключа HMAC. HMAC стоит микросекунды против десятков
+ * миллисекунд BCrypt. Неудачные попытки не кэшируются и каждый раз проверяются целиком.
+ * <p>
+ * Попадания и промахи считаются в movie.security.credentials с тегом result.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final AuthenticationProvider delegate;
+    private final Cache<String, Authentication> verified;
+    private final Mac prototype;
+    private final Counter hits;
+    private final Counter misses;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, Duration ttl, long maxEntries,
+                                         MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.verified = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .build();
+        final byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        try {
+            this.prototype = Mac.getInstance(ALGORITHM);
+            this.prototype.init(new SecretKeySpec(key, ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC недоступен", e);
+        }
+        this.hits = credentialsCounter(meterRegistry, "hit");
+        this.misses = credentialsCounter(meterRegistry, "miss");
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication instanceof UsernamePasswordAuthenticationToken) || authentication.getCredentials() == null) {
+            return delegate.authenticate(authentication);
+        }
+        final String key = key(authentication.getName(), authentication.getCredentials().toString());
+        final Authentication cached = verified.getIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            // новый объект на каждый запрос: ProviderManager дописывает в результат детали запроса
+            return UsernamePasswordAuthenticationToken.authenticated(cached.getPrincipal(), null, cached.getAuthorities());
+        }
+        misses.increment();
+        final Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated()) {
+            verified.put(key, result);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    private String key(String username, String password) {
+        final Mac mac;
+        try {
+            mac = (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HMAC не поддерживает копирование", e);
+        }
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static Counter credentialsCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("movie.security.credentials")
+                .description("Проверки логина и пароля: из кэша и с BCrypt")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
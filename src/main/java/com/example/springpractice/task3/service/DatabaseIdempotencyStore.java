@@ -0,0 +1,72 @@
+package com.example.springpractice.task3.service;
+
+import com.example.springpractice.task1.domain.IdempotencyRecord;
+import com.example.springpractice.task1.repository.IdempotencyRecordRepository;
+import com.example.springpractice.task3.dto.IdempotentResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Ответы в БД - видны всем экземплярам приложения и переживают перезапуск.
+ * Перед БД стоит кэш в памяти: повторы, пришедшие на тот же экземпляр, не обращаются к БД.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Slf4j
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyRecordRepository repository;
+    private final IdempotencyStore cache;
+    private final Duration ttl;
+
+    public DatabaseIdempotencyStore(IdempotencyRecordRepository repository, IdempotencyStore cache, Duration ttl) {
+        this.repository = repository;
+        this.cache = cache;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Optional<IdempotentResponse> find(String key) {
+        final Optional<IdempotentResponse> cached = cache.find(key);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        final Optional<IdempotentResponse> stored = repository.findByKeyAndCreatedAtAfter(key, Instant.now().minus(ttl))
+                .map(record -> new IdempotentResponse(record.getStatus(), record.getContentType(),
+                        record.getLocation(), record.getBody()));
+        stored.ifPresent(response -> cache.save(key, response));
+        return stored;
+    }
+
+    @Override
+    public void save(String key, IdempotentResponse response) {
+        final IdempotencyRecord record = new IdempotencyRecord();
+        record.setKey(key);
+        record.setStatus(response.status());
+        record.setContentType(response.contentType());
+        record.setLocation(response.location());
+        record.setBody(response.body());
+        record.setCreatedAt(Instant.now());
+        try {
+            repository.save(record);
+        } catch (DataIntegrityViolationException e) {
+            // ответ с этим ключом успел сохранить другой экземпляр
+            log.debug("Ответ по ключу идемпотентности уже сохранен: {}", key);
+        }
+        cache.save(key, response);
+    }
+
+    @Scheduled(fixedDelayString = "${movie.idempotency.cleanup-interval:PT10M}")
+    public void deleteExpired() {
+        final int deleted = repository.deleteExpired(Instant.now().minus(ttl));
+        if (deleted > 0) {
+            log.info("Удалено устаревших ответов по ключам идемпотентности: {}", deleted);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.springpractice.task3.service;
+
+import com.example.springpractice.task3.dto.IdempotentResponse;
+
+import java.util.Optional;
+
+/**
+ * Хранилище ответов на запросы с ключом идемпотентности.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Сохраненный и еще не устаревший ответ по ключу.
+     */
+    Optional<IdempotentResponse> find(String key);
+
+    /**
+     * Сохранение ответа. Если ответ по ключу уже сохранен, остается первый.
+     */
+    void save(String key, IdempotentResponse response);
+}
@@ -0,0 +1,36 @@
+package com.example.springpractice.task3.service;
+
+import com.example.springpractice.task3.dto.IdempotentResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Ответы в памяти экземпляра: ограниченный по размеру кэш с вытеснением по времени записи.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, IdempotentResponse> responses;
+
+    public InMemoryIdempotencyStore(Duration ttl, long maxEntries) {
+        this.responses = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    @Override
+    public Optional<IdempotentResponse> find(String key) {
+        return Optional.ofNullable(responses.getIfPresent(key));
+    }
+
+    @Override
+    public void save(String key, IdempotentResponse response) {
+        responses.asMap().putIfAbsent(key, response);
+    }
+}
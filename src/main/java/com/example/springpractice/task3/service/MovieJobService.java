@@ -0,0 +1,133 @@
+package com.example.springpractice.task3.service;
+
+import com.example.springpractice.task1.service.MovieService;
+import com.example.springpractice.task3.conf.MovieJobProperties;
+import com.example.springpractice.task3.dto.MovieJobStatus;
+import com.example.springpractice.task3.dto.MovieJobStatus.State;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Асинхронное создание фильмов.
+ * Задание кладется в ограниченную очередь и выполняется пулом потоков: поток запроса не ждет транзакцию создания
+ * и синхронные обработчики событий (присвоение лейбла). Состояние задания хранится в памяти
+ * {@link MovieJobProperties#getResultTtl()} для опроса клиентом.
+ * <p>
+ * Состояние не переживает перезапуск и не видно другим экземплярам приложения.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(prefix = "movie.jobs", name = "enabled", havingValue = "true")
+public class MovieJobService {
+
+    private final MovieService movieService;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, MovieJob> jobs;
+
+    public MovieJobService(MovieService movieService, MovieJobProperties properties, MeterRegistry meterRegistry) {
+        this.movieService = movieService;
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("movie-job-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getResultTtl())
+                .maximumSize(properties.getMaxResults())
+                .build();
+        Gauge.builder("movie.jobs.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Задания на создание фильмов, ожидающие потока")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Постановка задания на создание фильма в очередь.
+     *
+     * @throws RejectedExecutionException если очередь заполнена
+     */
+    public MovieJobStatus submit(String movieName) {
+        final MovieJob job = new MovieJob(UUID.randomUUID().toString());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, movieName));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.id);
+            throw e;
+        }
+        return job.status;
+    }
+
+    /**
+     * Текущее состояние задания, пусто - если задания нет или оно устарело.
+     */
+    public Optional<MovieJobStatus> find(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId)).map(job -> job.status);
+    }
+
+    /**
+     * Завершение задания для клиентов, которые хотят дождаться результата.
+     */
+    public Optional<CompletableFuture<MovieJobStatus>> completion(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId)).map(job -> job.completion);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Пул создания фильмов остановлен принудительно, не выполнено заданий: {}", executor.getQueue().size());
+            executor.shutdownNow();
+        }
+    }
+
+    private void run(MovieJob job, String movieName) {
+        job.update(State.RUNNING, null, null);
+        try {
+            final Long movieId = movieService.createMovie(movieName).getId();
+            job.update(State.DONE, movieId, null);
+        } catch (RuntimeException e) {
+            log.error("Ошибка задания на создание фильма {}", job.id, e);
+            job.update(State.FAILED, null, e.getMessage());
+        }
+        // повторная запись продлевает хранение результата от момента завершения
+        jobs.put(job.id, job);
+        job.completion.complete(job.status);
+    }
+
+    private static final class MovieJob {
+
+        private final String id;
+        private final Instant submittedAt = Instant.now();
+        private final CompletableFuture<MovieJobStatus> completion = new CompletableFuture<>();
+        private volatile MovieJobStatus status;
+
+        MovieJob(String id) {
+            this.id = id;
+            this.status = new MovieJobStatus(id, State.PENDING, null, null, submittedAt, null);
+        }
+
+        void update(State state, Long movieId, String error) {
+            final Instant completedAt = (state == State.DONE || state == State.FAILED ? Instant.now() : null);
+            status = new MovieJobStatus(id, state, movieId, error, submittedAt, completedAt);
+        }
+    }
+}
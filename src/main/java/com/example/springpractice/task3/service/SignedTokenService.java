@@ -0,0 +1,92 @@
+package com.example.springpractice.task3.service;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+/**
+ * Выдача и проверка подписанных токенов без состояния на сервере.
+ * Токен - base64url(срок|роли|пользователь) + "." + base64url(HMAC-SHA256 от первой части).
+ * Проверка токена - один HMAC вместо BCrypt; роли берутся из токена, поэтому их изменение
+ * и блокировка пользователя вступают в силу не позже истечения срока токена.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public class SignedTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Mac prototype;
+    private final Duration ttl;
+
+    public SignedTokenService(byte[] key, Duration ttl) {
+        try {
+            this.prototype = Mac.getInstance(ALGORITHM);
+            this.prototype.init(new SecretKeySpec(key, ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC недоступен", e);
+        }
+        this.ttl = ttl;
+    }
+
+    /**
+     * Токен для успешно аутентифицированного пользователя.
+     */
+    public String issue(Authentication authentication) {
+        final long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+        final String roles = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(","));
+        final byte[] payload = (expiresAt + "|" + roles + "|" + authentication.getName())
+                .getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /**
+     * Аутентификация по токену или null, если токен поврежден, подписан другим ключом или истек.
+     */
+    public Authentication verify(String token) {
+        final int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        final byte[] payload;
+        final byte[] signature;
+        try {
+            payload = DECODER.decode(token.substring(0, dot));
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(sign(payload), signature)) {
+            return null;
+        }
+        final String[] parts = new String(payload, StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length != 3 || Long.parseLong(parts[0]) < System.currentTimeMillis()) {
+            return null;
+        }
+        return UsernamePasswordAuthenticationToken.authenticated(parts[2], null,
+                AuthorityUtils.commaSeparatedStringToAuthorityList(parts[1]));
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            return ((Mac) prototype.clone()).doFinal(payload);
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HMAC не поддерживает копирование", e);
+        }
+    }
+}
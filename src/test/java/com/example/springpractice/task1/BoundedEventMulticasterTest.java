@@ -0,0 +1,188 @@
+package com.example.springpractice.task1;
+
+import com.example.springpractice.task1.conf.MovieEventDispatchProperties;
+import com.example.springpractice.task1.conf.MovieEventDispatchProperties.ListenerDispatch;
+import com.example.springpractice.task1.conf.MovieEventDispatchProperties.OverloadPolicy;
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.event.BoundedEventMulticaster;
+import com.example.springpractice.task1.event.MovieCreatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.event.SmartApplicationListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестирование ограниченной асинхронной доставки событий по фильмам.
+ * Обработчик блокируется на событиях фильмов с названием "slow ...", пока тест его не отпустит.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public class BoundedEventMulticasterTest {
+
+    private static final String LISTENER = "slowListener";
+    private static final String LISTENER_KEY = "SlowListener#" + LISTENER;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final Map<String, Thread> handled = new ConcurrentHashMap<>();
+    private BoundedEventMulticaster multicaster;
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        release.countDown();
+        multicaster.destroy();
+    }
+
+    /**
+     * Очередь на одно событие: пока обработчик занят, новые события вытесняют самое старое из очереди.
+     * Публикующий поток при этом не блокируется.
+     */
+    @Test
+    public void shouldDropOldestEventsWhenQueueIsFull() {
+        multicaster = multicaster(OverloadPolicy.DROP_OLDEST);
+
+        for (int i = 0; i < 5; i++) {
+            publish("slow " + i);
+        }
+        assertEquals(3.0, meterRegistry.get("movie.events.dispatch.rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("movie.events.dispatch.queue.depth").gauge().value());
+
+        release.countDown();
+        await().atMost(5, TimeUnit.SECONDS)
+                .until(() -> meterRegistry.get("movie.events.dispatch.latency").timer().count() == 2);
+        // обработано первое событие и последнее из очереди, промежуточные отброшены
+        assertEquals(List.of("slow 0", "slow 4"), handled.keySet().stream().sorted().toList());
+    }
+
+    /**
+     * При переполнении очереди обработчик вызывается синхронно в публикующем потоке.
+     */
+    @Test
+    public void shouldRunOnCallerWhenQueueIsFull() {
+        multicaster = multicaster(OverloadPolicy.CALLER_RUNS);
+
+        publish("slow 0");
+        publish("slow 1");
+        publish("fast 2");
+
+        // первое событие занимает исполнитель, второе ждет в очереди, третье обработано публикующим потоком
+        assertEquals(Thread.currentThread(), handled.get("fast 2"));
+        assertEquals(1.0, meterRegistry.get("movie.events.dispatch.rejected").counter().count());
+
+        release.countDown();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> handled.size() == 3);
+        assertNotEquals(Thread.currentThread(), handled.get("slow 0"));
+        assertNotEquals(Thread.currentThread(), handled.get("slow 1"));
+    }
+
+    /**
+     * При переполнении очереди публикующий поток ждет места: событие не теряется и не считается отклоненным.
+     */
+    @Test
+    public void shouldBlockPublisherWhenQueueIsFull() throws InterruptedException {
+        multicaster = multicaster(OverloadPolicy.BLOCK);
+
+        publish("slow 0");
+        publish("slow 1");
+        final Thread publisher = new Thread(() -> publish("slow 2"));
+        publisher.start();
+        await().atMost(5, TimeUnit.SECONDS)
+                .until(() -> meterRegistry.get("movie.events.dispatch.blocked").counter().count() == 1.0);
+        assertTrue(publisher.isAlive());
+
+        release.countDown();
+        publisher.join(5_000);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> handled.size() == 3);
+        assertEquals(0.0, meterRegistry.get("movie.events.dispatch.rejected").counter().count());
+    }
+
+    /**
+     * Ключ сопоставляется с классом и методом обработчика целиком, а не как часть listenerId.
+     */
+    @Test
+    public void shouldMatchListenerByClassAndMethod() throws InterruptedException {
+        for (String key : List.of("slowListener", "SlowListener#slow", "Listener#slowListener", "SlowListener")) {
+            multicaster = multicaster(OverloadPolicy.BLOCK, key);
+            publish("fast " + key);
+            assertEquals(Thread.currentThread(), handled.get("fast " + key), key);
+            multicaster.destroy();
+        }
+
+        final String qualifiedKey = SlowListener.class.getName() + "#" + LISTENER;
+        for (String key : List.of(qualifiedKey, LISTENER_KEY, new SlowListener().getListenerId())) {
+            multicaster = multicaster(OverloadPolicy.BLOCK, key);
+            publish("fast " + key);
+            await().atMost(5, TimeUnit.SECONDS).until(() -> handled.containsKey("fast " + key));
+            assertNotEquals(Thread.currentThread(), handled.get("fast " + key), key);
+            multicaster.destroy();
+        }
+    }
+
+    private void publish(String movieName) {
+        multicaster.multicastEvent(new MovieCreatedEvent(this, new Movie(movieName)));
+        // даем исполнителю забрать первое событие из очереди
+        if (movieName.endsWith(" 0")) {
+            await().atMost(5, TimeUnit.SECONDS)
+                    .until(() -> meterRegistry.get("movie.events.dispatch.queue.depth").gauge().value() == 0);
+        }
+    }
+
+    private BoundedEventMulticaster multicaster(OverloadPolicy policy) {
+        return multicaster(policy, LISTENER_KEY);
+    }
+
+    private BoundedEventMulticaster multicaster(OverloadPolicy policy, String listenerKey) {
+        final ListenerDispatch dispatch = new ListenerDispatch();
+        dispatch.setThreads(1);
+        dispatch.setQueueCapacity(1);
+        dispatch.setOverloadPolicy(policy);
+        final MovieEventDispatchProperties properties = new MovieEventDispatchProperties();
+        properties.setEnabled(true);
+        properties.getListeners().put(listenerKey, dispatch);
+
+        final BoundedEventMulticaster result =
+                new BoundedEventMulticaster(new DefaultListableBeanFactory(), properties, () -> meterRegistry);
+        result.addApplicationListener(new SlowListener());
+        return result;
+    }
+
+    private class SlowListener implements SmartApplicationListener {
+
+        @Override
+        public boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+            return MovieCreatedEvent.class.isAssignableFrom(eventType);
+        }
+
+        @Override
+        public String getListenerId() {
+            return getClass().getName() + "." + LISTENER;
+        }
+
+        @Override
+        public void onApplicationEvent(ApplicationEvent event) {
+            final String name = ((MovieCreatedEvent) event).getName();
+            if (name.startsWith("slow")) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            handled.put(name, Thread.currentThread());
+        }
+    }
+}
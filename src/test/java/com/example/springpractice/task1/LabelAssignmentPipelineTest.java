@@ -0,0 +1,101 @@
+package com.example.springpractice.task1;
+
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.listener.LabelAssignmentPipeline;
+import com.example.springpractice.task1.repository.MovieRepository;
+import com.example.springpractice.task1.service.LabelService;
+import com.example.springpractice.task1.service.MovieService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.aot.DisabledInAotMode;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Тестирование асинхронного конвейера присвоения лейблов: пачки, а при ошибке пачки - присвоение по одному фильму.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@SpringBootTest(properties = {
+        "movie.label.pipeline.enabled=true",
+        "movie.label.pipeline.batch-size=20",
+        "movie.label.pipeline.linger=20ms"
+})
+@DisabledInAotMode
+public class LabelAssignmentPipelineTest {
+
+    private static final String POISON = "Pipeline poison";
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private LabelAssignmentPipeline labelAssignmentPipeline;
+
+    @SpyBean
+    private LabelService labelService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Лейбл проставляется после фиксации транзакции в отдельном потоке - пачками, без участия потока создания фильма.
+     */
+    @Test
+    public void shouldAssignLabelsAfterCommitInBatches() {
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            names.add("Movie " + i);
+        }
+        final List<Long> ids = movieService.createMovies(names);
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> labelAssignmentPipeline.pending() == 0
+                && movieRepository.findAllById(ids).stream().allMatch(movie -> movie.getLabel() != null));
+
+        final List<Movie> movies = movieRepository.findAllById(ids);
+        assertEquals(ids.size(), movies.size());
+        assertTrue(movies.stream().allMatch(movie -> "movie company label".equals(movie.getLabel())));
+    }
+
+    /**
+     * Ошибка на одном фильме не оставляет без лейбла остальную пачку, фильм без лейбла попадает в метрику.
+     */
+    @Test
+    public void shouldAssignOneByOneWhenBatchFails() {
+        final double failures = meterRegistry.get("movie.label.pipeline.failures").counter().count();
+        doThrow(new IllegalStateException("Ядовитый фильм"))
+                .when(labelService).assignLabels(argThat(movieIds -> movieIds.stream().anyMatch(this::isPoison)));
+        doThrow(new IllegalStateException("Ядовитый фильм"))
+                .when(labelService).assignLabel(ArgumentMatchers.<Long>argThat(this::isPoison));
+
+        final List<Long> ids = movieService.createMovies(List.of(POISON, "Pipeline movie 1", "Pipeline movie 2"));
+        final Long poison = ids.get(0);
+        await().atMost(Duration.ofSeconds(10)).until(() -> labelAssignmentPipeline.pending() == 0
+                && meterRegistry.get("movie.label.pipeline.failures").counter().count() == failures + 1);
+
+        assertNull(movieRepository.findById(poison).orElseThrow().getLabel());
+        assertTrue(movieRepository.findAllById(ids.subList(1, ids.size())).stream()
+                .allMatch(movie -> "movie company label".equals(movie.getLabel())));
+    }
+
+    private boolean isPoison(Long movieId) {
+        return movieRepository.findById(movieId).map(movie -> POISON.equals(movie.getName())).orElse(false);
+    }
+}
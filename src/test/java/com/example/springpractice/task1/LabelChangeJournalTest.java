@@ -0,0 +1,152 @@
+package com.example.springpractice.task1;
+
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.dto.LabelChange;
+import com.example.springpractice.task1.journal.LabelChangeJournal;
+import com.example.springpractice.task1.repository.MovieRepository;
+import com.example.springpractice.task1.service.LabelAuditService;
+import com.example.springpractice.task1.service.LabelService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестирование журнала смены лейблов: смена сегментов, поиск по фильму, восстановление после оборванной записи
+ * и запись в журнал только зафиксированных изменений.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@SpringBootTest
+@DirtiesContext
+public class LabelChangeJournalTest {
+
+    @TempDir
+    static Path journalDirectory;
+
+    @DynamicPropertySource
+    static void journalProperties(DynamicPropertyRegistry registry) {
+        registry.add("movie.label.journal.enabled", () -> "true");
+        registry.add("movie.label.journal.directory", () -> journalDirectory.resolve("app").toString());
+    }
+
+    @Autowired
+    private LabelService labelService;
+
+    @Autowired
+    private LabelAuditService labelAuditService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void shouldRollSegmentsAndFindByMovie(@TempDir Path directory) throws IOException {
+        try (LabelChangeJournal journal = LabelChangeJournal.open(directory, 256, 64)) {
+            for (int i = 0; i < 30; i++) {
+                journal.append(new LabelChange(i % 3, "label " + i, "label " + (i + 1), Instant.ofEpochMilli(i), "spring"));
+            }
+            assertTrue(journal.segmentCount() > 1);
+
+            List<LabelChange> history = journal.findByMovieId(1);
+            assertEquals(10, history.size());
+            assertEquals("label 1", history.get(0).oldLabel());
+            assertEquals("label 28", history.get(9).oldLabel());
+            assertEquals(Instant.ofEpochMilli(28), history.get(9).timestamp());
+            assertTrue(journal.findByMovieId(42).isEmpty());
+        }
+
+        try (LabelChangeJournal reopened = LabelChangeJournal.open(directory, 256, 64)) {
+            assertEquals(10, reopened.findByMovieId(2).size());
+            reopened.append(new LabelChange(2, null, "new", Instant.EPOCH, null));
+            List<LabelChange> history = reopened.findByMovieId(2);
+            assertEquals(11, history.size());
+            assertNull(history.get(10).oldLabel());
+            assertNull(history.get(10).principal());
+        }
+    }
+
+    @Test
+    public void shouldIgnoreTornRecordOnOpen(@TempDir Path directory) throws IOException {
+        try (LabelChangeJournal journal = LabelChangeJournal.open(directory, 4096, 512)) {
+            journal.append(new LabelChange(7, null, "first", Instant.EPOCH, "spring"));
+            journal.append(new LabelChange(7, "first", "second", Instant.EPOCH, "spring"));
+        }
+        final Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        // портим последний байт второй записи - как если бы процесс упал посреди записи.
+        // Запись - 30 байт заголовка и полей фиксированной длины плюс строки: 30 + 11 и 30 + 17
+        final long secondRecordEnd = 41 + 47 - 1;
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(secondRecordEnd);
+            final int lastByte = file.read();
+            file.seek(secondRecordEnd);
+            file.write(lastByte ^ 0xFF);
+        }
+
+        try (LabelChangeJournal reopened = LabelChangeJournal.open(directory, 4096, 512)) {
+            assertEquals(1, reopened.findByMovieId(7).size());
+            reopened.append(new LabelChange(7, "first", "third", Instant.EPOCH, "spring"));
+            assertEquals(List.of("first", "third"),
+                    reopened.findByMovieId(7).stream().map(LabelChange::newLabel).toList());
+        }
+    }
+
+    @Test
+    public void shouldRecordOnlyCommittedChanges() {
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        final Movie movie = transactionTemplate.execute(status -> movieRepository.save(new Movie("Journal movie")));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            labelService.assignLabel(movieRepository.findById(movie.getId()).orElseThrow());
+            status.setRollbackOnly();
+        });
+        assertTrue(labelAuditService.history(movie.getId()).isEmpty());
+
+        transactionTemplate.executeWithoutResult(status ->
+                labelService.assignLabel(movieRepository.findById(movie.getId()).orElseThrow()));
+        List<LabelChange> history = labelAuditService.history(movie.getId());
+        assertEquals(1, history.size());
+        assertNull(history.get(0).oldLabel());
+        assertEquals(movieRepository.findById(movie.getId()).orElseThrow().getLabel(), history.get(0).newLabel());
+    }
+
+    @Test
+    public void shouldRecordBulkAndConditionalChanges() {
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        final Movie movie = transactionTemplate.execute(status -> movieRepository.save(new Movie("Journal bulk movie")));
+
+        transactionTemplate.executeWithoutResult(status -> labelService.assignLabels(List.of(movie.getId())));
+        final String assigned = movieRepository.findById(movie.getId()).orElseThrow().getLabel();
+        labelService.changeLabel(movie.getId(), "Journal label");
+
+        List<LabelChange> history = labelAuditService.history(movie.getId());
+        assertEquals(2, history.size());
+        assertNull(history.get(0).oldLabel());
+        assertEquals(assigned, history.get(0).newLabel());
+        assertEquals(assigned, history.get(1).oldLabel());
+        assertEquals("Journal label", history.get(1).newLabel());
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.springpractice.task1;
+
+import com.example.springpractice.task1.conf.LabelRuleProperties;
+import com.example.springpractice.task1.conf.LabelRuleProperties.Rule;
+import com.example.springpractice.task1.conf.LabelRuleProperties.RuleType;
+import com.example.springpractice.task1.domain.Author;
+import com.example.springpractice.task1.domain.LabelRule;
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.repository.AuthorRepository;
+import com.example.springpractice.task1.repository.LabelRuleRepository;
+import com.example.springpractice.task1.repository.MovieRepository;
+import com.example.springpractice.task1.service.LabelRuleEngine;
+import com.example.springpractice.task1.service.LabelRuleSet;
+import com.example.springpractice.task1.service.LabelService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестирование правил присвоения лейблов: точное название, автор, регулярное выражение, запрещенные лейблы
+ * и подмена набора правил из таблицы и из изменившихся настроек.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@SpringBootTest(properties = {
+        "movie.label.rules.rules[0].name=exact",
+        "movie.label.rules.rules[0].type=name",
+        "movie.label.rules.rules[0].match=Rule movie exact",
+        "movie.label.rules.rules[0].label=exact label",
+        "movie.label.rules.rules[1].name=author",
+        "movie.label.rules.rules[1].type=author",
+        "movie.label.rules.rules[1].match=Rule author",
+        "movie.label.rules.rules[1].label=author label",
+        "movie.label.rules.rules[2].name=sequel",
+        "movie.label.rules.rules[2].type=name-pattern",
+        "movie.label.rules.rules[2].match=Rule movie .* 2",
+        "movie.label.rules.rules[2].label=sequel label",
+        "movie.label.rules.rules[3].type=forbidden",
+        "movie.label.rules.rules[3].match=banned"
+})
+@DirtiesContext
+public class LabelRuleEngineTest {
+
+    @Autowired
+    private LabelService labelService;
+
+    @Autowired
+    private LabelRuleEngine labelRuleEngine;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private LabelRuleRepository labelRuleRepository;
+
+    @Test
+    public void shouldAssignLabelsByRules() {
+        final Author author = authorRepository.save(new Author(null, "Rule author"));
+        final Movie exact = movieRepository.save(new Movie("Rule movie exact"));
+        final Movie byAuthor = new Movie("Rule movie by author");
+        byAuthor.setAuthors(List.of(author));
+        movieRepository.save(byAuthor);
+        final Movie sequel = movieRepository.save(new Movie("Rule movie sequel 2"));
+        final Movie other = movieRepository.save(new Movie("Rule movie other"));
+        final long defaultHits = labelRuleEngine.hits(LabelRuleSet.DEFAULT_RULE);
+
+        labelService.assignLabels(List.of(exact.getId(), byAuthor.getId(), sequel.getId(), other.getId()));
+
+        assertEquals("exact label", label(exact));
+        assertEquals("author label", label(byAuthor));
+        assertEquals("sequel label", label(sequel));
+        assertEquals("movie company label", label(other));
+        assertEquals(1, labelRuleEngine.hits("exact"));
+        assertEquals(1, labelRuleEngine.hits("author"));
+        assertEquals(1, labelRuleEngine.hits("sequel"));
+        assertEquals(defaultHits + 1, labelRuleEngine.hits(LabelRuleSet.DEFAULT_RULE));
+    }
+
+    @Test
+    public void shouldRejectForbiddenLabels() {
+        assertTrue(labelRuleEngine.isForbidden("banned"));
+        assertTrue(labelRuleEngine.isForbidden("forbidden"));
+        final Movie movie = movieRepository.save(new Movie("Rule movie forbidden"));
+
+        assertThrows(IllegalArgumentException.class, () -> labelService.changeLabel(movie.getId(), "banned"));
+        assertThrows(IllegalArgumentException.class, () -> LabelRuleSet.compile("default", Set.of("banned"),
+                List.of(new Rule("bad", RuleType.NAME, "Movie", "banned")), name -> new LongAdder()));
+    }
+
+    @Test
+    public void shouldSwapRulesFromTableOnReload() {
+        final LabelRuleProperties properties = new LabelRuleProperties();
+        properties.setSource(LabelRuleProperties.Source.DATABASE);
+        final LabelRuleEngine engine = new LabelRuleEngine(
+                properties, new MockEnvironment(), labelRuleRepository, new SimpleMeterRegistry());
+        final Movie movie = new Movie("Table rule movie");
+        labelRuleRepository.deleteAll();
+
+        assertEquals("movie company label", engine.labelFor(movie));
+
+        labelRuleRepository.save(new LabelRule("table", RuleType.NAME, "Table rule movie", "table label"));
+        assertEquals("movie company label", engine.labelFor(movie), "до перечитывания действует прежний набор");
+        engine.reload();
+        assertEquals("table label", engine.labelFor(movie));
+
+        labelRuleRepository.save(new LabelRule("broken", RuleType.NAME_PATTERN, "(", "broken label"));
+        assertThrows(IllegalArgumentException.class, engine::reload);
+        assertEquals("table label", engine.labelFor(movie), "некорректный набор не подменяет прежний");
+        labelRuleRepository.deleteAll();
+    }
+
+    @Test
+    public void shouldRebindRulesFromPropertiesOnReload() {
+        final MockEnvironment environment = new MockEnvironment()
+                .withProperty("movie.label.rules.rules[0].name", "props")
+                .withProperty("movie.label.rules.rules[0].type", "name")
+                .withProperty("movie.label.rules.rules[0].match", "Props rule movie")
+                .withProperty("movie.label.rules.rules[0].label", "first label");
+        final LabelRuleProperties properties = Binder.get(environment)
+                .bind("movie.label.rules", LabelRuleProperties.class).get();
+        final LabelRuleEngine engine = new LabelRuleEngine(
+                properties, environment, labelRuleRepository, new SimpleMeterRegistry());
+        final Movie movie = new Movie("Props rule movie");
+        assertEquals("first label", engine.labelFor(movie));
+
+        environment.setProperty("movie.label.rules.rules[0].label", "second label");
+        environment.setProperty("movie.label.rules.forbidden[0]", "first label");
+        assertEquals("first label", engine.labelFor(movie), "до перечитывания действует прежний набор");
+        engine.reload();
+        assertEquals("second label", engine.labelFor(movie));
+        assertTrue(engine.isForbidden("first label"));
+
+        environment.setProperty("movie.label.rules.rules[0].type", "name-pattern");
+        environment.setProperty("movie.label.rules.rules[0].match", "(");
+        assertThrows(IllegalArgumentException.class, engine::reload);
+        assertEquals("second label", engine.labelFor(movie), "некорректный набор не подменяет прежний");
+    }
+
+    private String label(Movie movie) {
+        return movieRepository.findById(movie.getId()).orElseThrow().getLabel();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.springpractice.task1;
+
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.event.MovieCreatedEvent;
+import com.example.springpractice.task1.repository.MovieRepository;
+import com.example.springpractice.task1.service.MovieService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Профилирование выделения памяти при создании фильма: создание, событие, присвоение лейбла обработчиками task1.
+ * Логи обработчиков выключены, как в нагруженном окружении, - выключенный лог не должен строить строки.
+ * <p>
+ * Бюджет относительный: выделения на создание фильма сравниваются с сохранением фильма в транзакции без события
+ * и обработчиков, измеренным в том же запуске. Так бюджет не зависит от JVM, GC и версий зависимостей, и тест
+ * входит в обычный {@code mvn test}. Сейчас создание выделяет около 2 сохранений (60 и 30 КБ с H2), прежний путь -
+ * около 2,5 (77 КБ): бюджет взят с запасом над текущим значением и ниже прежнего.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.com.example.springpractice=WARN"})
+@ActiveProfiles("task1")
+@DirtiesContext
+public class MovieCreateAllocationTest {
+
+    private static final double BASELINE_RATIO_BUDGET = 2.3;
+    private static final int WARMUP_CALLS = 3_000;
+    private static final int MEASURED_CALLS = 1_000;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void shouldStayWithinAllocationBudget() {
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        final Runnable baseline = () -> transactionTemplate.executeWithoutResult(
+                status -> movieRepository.save(new Movie("Movie")));
+        final Runnable createMovie = () -> movieService.createMovie("Movie");
+        // прогрев: JIT и escape analysis, заполнение кэшей метрик и метаданных Hibernate
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            baseline.run();
+            createMovie.run();
+        }
+        final long baselineBytes = bytesPerCall(threads, baseline);
+        final long createBytes = bytesPerCall(threads, createMovie);
+
+        assertTrue(createBytes <= baselineBytes * BASELINE_RATIO_BUDGET, "Создание фильма выделяет " + createBytes
+                + " байт, сохранение без обработчиков " + baselineBytes + ", бюджет x" + BASELINE_RATIO_BUDGET);
+    }
+
+    private static long bytesPerCall(com.sun.management.ThreadMXBean threads, Runnable call) {
+        final long threadId = Thread.currentThread().getId();
+        final long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            call.run();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / MEASURED_CALLS;
+    }
+
+    /**
+     * Событие не удерживает сущность: асинхронные обработчики не продлевают жизнь контексту персистентности.
+     */
+    @Test
+    public void eventShouldNotHoldEntity() {
+        final Field[] fields = MovieCreatedEvent.class.getDeclaredFields();
+        assertTrue(Arrays.stream(fields).noneMatch(field -> field.getType() == Movie.class));
+    }
+}
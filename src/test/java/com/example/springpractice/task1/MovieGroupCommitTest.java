@@ -0,0 +1,161 @@
+package com.example.springpractice.task1;
+
+import com.example.springpractice.task1.conf.MovieGroupCommitProperties;
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.repository.MovieRepository;
+import com.example.springpractice.task1.service.MovieGroupCommitter;
+import com.example.springpractice.task1.service.MovieService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тестирование группового создания фильмов: одновременные запросы фиксируются общими транзакциями,
+ * каждый вызывающий получает свой фильм, а ошибка одного запроса не откатывает остальные.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@SpringBootTest(properties = {
+        "movie.group-commit.enabled=true",
+        "movie.group-commit.window=200ms"
+})
+@DirtiesContext
+// @SpyBean не поддерживается AOT обработкой тестовых контекстов, в native image тест не запускается
+@DisabledInAotMode
+public class MovieGroupCommitTest {
+
+    private static final int CALLERS = 20;
+
+    @Autowired
+    private MovieGroupCommitter movieGroupCommitter;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private MovieService movieService;
+
+    @Test
+    public void shouldCommitConcurrentCreatesTogether() throws Exception {
+        final long moviesBefore = movieRepository.count();
+        final DistributionSummary batchSizes = meterRegistry.get("movie.group.commit.size").summary();
+        final long batchesBefore = batchSizes.count();
+
+        final List<Future<Movie>> results = submit(name -> name);
+
+        final Set<Long> ids = new HashSet<>();
+        for (Future<Movie> result : results) {
+            final Movie movie = result.get();
+            assertNotNull(movie.getId());
+            ids.add(movie.getId());
+        }
+        assertEquals(CALLERS, ids.size());
+        assertEquals(moviesBefore + CALLERS, movieRepository.count());
+        assertTrue(batchSizes.count() - batchesBefore < CALLERS, "запросы должны объединяться в группы");
+    }
+
+    @Test
+    public void shouldIsolateFailureOfOneCaller() throws Exception {
+        doThrow(new IllegalArgumentException("Некорректное название")).when(movieService).createMovie(eq("broken"));
+        final long moviesBefore = movieRepository.count();
+
+        final List<Future<Movie>> results = submit(name -> name.endsWith("-0") ? "broken" : name);
+
+        final ExecutionException failure = assertThrows(ExecutionException.class, () -> results.get(0).get());
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+        for (Future<Movie> result : results.subList(1, CALLERS)) {
+            assertNotNull(result.get().getId());
+        }
+        assertEquals(moviesBefore + CALLERS - 1, movieRepository.count());
+    }
+
+    @Test
+    public void shouldStopWaitingAndSkipAbandonedRequest() throws Exception {
+        final MovieService blockingService = mock(MovieService.class);
+        final CountDownLatch committing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(blockingService.createMovie("first")).thenAnswer(invocation -> {
+            committing.countDown();
+            release.await();
+            return new Movie("first");
+        });
+        final MovieGroupCommitProperties properties = new MovieGroupCommitProperties();
+        properties.setWindow(Duration.ofMillis(1));
+        properties.setMaxBatchSize(1);
+        properties.setResultTimeout(Duration.ofMillis(200));
+        final MovieGroupCommitter committer = new MovieGroupCommitter(blockingService, properties,
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+        final ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            caller.submit(() -> committer.createMovie("first"));
+            committing.await();
+
+            // поток фиксации занят первой группой, второй запрос не дожидается своей и в группу уже не попадает
+            assertThrows(QueryTimeoutException.class, () -> committer.createMovie("second"));
+
+            release.countDown();
+            committer.shutdown();
+            verify(blockingService, times(1)).createMovie("first");
+            verify(blockingService, never()).createMovie("second");
+        } finally {
+            release.countDown();
+            caller.shutdownNow();
+        }
+    }
+
+    private List<Future<Movie>> submit(UnaryOperator<String> names) throws InterruptedException {
+        final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        final CountDownLatch start = new CountDownLatch(1);
+        try {
+            final List<Future<Movie>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                final String name = names.apply("group-" + i);
+                results.add(callers.submit(() -> {
+                    start.await();
+                    return movieGroupCommitter.createMovie(name);
+                }));
+            }
+            start.countDown();
+            return results;
+        } finally {
+            callers.shutdown();
+        }
+    }
+}
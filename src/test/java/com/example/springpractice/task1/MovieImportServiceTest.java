@@ -0,0 +1,200 @@
+package com.example.springpractice.task1;
+
+import com.example.springpractice.task1.domain.Author;
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.dto.MovieImportResult;
+import com.example.springpractice.task1.event.MovieBatchCreatedEvent;
+import com.example.springpractice.task1.repository.AuthorRepository;
+import com.example.springpractice.task1.repository.MovieRepository;
+import com.example.springpractice.task1.service.MovieImportFormat;
+import com.example.springpractice.task1.service.MovieImportService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Тестирование импорта фильмов: авторы не дублируются, в том числе при параллельном создании того же автора,
+ * фильмам без лейбла в файле лейбл присваивается, а повторный запуск прерванного импорта
+ * загружает только недостающие пачки. Пачки пишет один поток - так порядок загрузки пачек предсказуем.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@SpringBootTest(properties = {"movie.import.chunk-size=2", "movie.import.parallelism=1"})
+@DirtiesContext
+@DisabledInAotMode
+public class MovieImportServiceTest {
+
+    @Autowired
+    private MovieImportService movieImportService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @SpyBean
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private List<MovieBatchCreatedEvent> batchEvents;
+
+    @TestConfiguration
+    static class BatchEventsConfiguration {
+
+        /**
+         * События пачек импорта - публикуются в потоках записи пачек.
+         */
+        @Bean
+        List<MovieBatchCreatedEvent> batchEvents() {
+            return new CopyOnWriteArrayList<>();
+        }
+
+        @Bean
+        ApplicationListener<MovieBatchCreatedEvent> batchEventsListener(List<MovieBatchCreatedEvent> batchEvents) {
+            return batchEvents::add;
+        }
+    }
+
+    @Test
+    public void shouldImportCsvWithSharedAuthors() throws IOException {
+        authorRepository.save(new Author(null, "Csv existing author"));
+        batchEvents.clear();
+        final String csv = """
+                name,label,authors
+                Csv movie 1,Drama,Csv existing author;Csv new author
+                "Csv movie 2, quoted",,Csv new author
+                Csv movie 3,Comedy,
+                """;
+
+        final MovieImportResult result = movieImportService.importMovies("csv-import", MovieImportFormat.CSV, stream(csv));
+
+        assertEquals(3, result.movies());
+        assertEquals(2, result.chunks());
+        assertEquals(1, result.authors());
+        transactionTemplate.executeWithoutResult(status -> {
+            final List<Movie> movies = importedMovies("Csv movie");
+            assertEquals(3, movies.size());
+            assertEquals(List.of("Csv existing author", "Csv new author"),
+                    movies.get(0).getAuthors().stream().map(Author::getName).sorted().toList());
+            assertEquals("Csv movie 2, quoted", movies.get(1).getName());
+            assertEquals("Drama", movies.get(0).getLabel());
+            assertEquals(authorRepository.findByName("Csv new author").orElseThrow(), movies.get(1).getAuthors().get(0));
+            assertEquals(0, movies.get(2).getAuthors().size());
+            // событие на каждую пачку, лейбл присваивается только фильму без лейбла в файле
+            assertEquals(List.of(List.of(movies.get(0).getId(), movies.get(1).getId()), List.of(movies.get(2).getId())),
+                    batchEvents.stream().map(MovieBatchCreatedEvent::getMovieIds).toList());
+            assertEquals(List.of(List.of(movies.get(1).getId()), List.of()),
+                    batchEvents.stream().map(MovieBatchCreatedEvent::getUnlabeledMovieIds).toList());
+        });
+    }
+
+    @Test
+    public void shouldResumeInterruptedImport() throws IOException {
+        final String tooLongName = "x".repeat(300);
+        final String broken = ndjson("Resume movie 1", "Resume movie 2", tooLongName, "Resume movie 4", "Resume movie 5");
+        final String fixed = ndjson("Resume movie 1", "Resume movie 2", "Resume movie 3", "Resume movie 4", "Resume movie 5");
+
+        assertThrows(RuntimeException.class,
+                () -> movieImportService.importMovies("resume-import", MovieImportFormat.NDJSON, stream(broken)));
+
+        final MovieImportResult result =
+                movieImportService.importMovies("resume-import", MovieImportFormat.NDJSON, stream(fixed));
+        final MovieImportResult repeated =
+                movieImportService.importMovies("resume-import", MovieImportFormat.NDJSON, stream(fixed));
+
+        // первая пачка загрузилась до ошибки, вторая и третья - при повторном запуске
+        assertEquals(1, result.skippedChunks());
+        assertEquals(2, result.chunks());
+        assertEquals(3, result.movies());
+        assertEquals(0, result.authors());
+        assertEquals(0, repeated.movies());
+        assertEquals(3, repeated.skippedChunks());
+        assertEquals(List.of("Resume movie 1", "Resume movie 2", "Resume movie 3", "Resume movie 4", "Resume movie 5"),
+                importedMovies("Resume movie").stream().map(Movie::getName).toList());
+    }
+
+    /**
+     * Другой импорт создает того же автора между поиском и вставкой: вставка нарушает уникальность имени,
+     * и попытка повторяется - импорт использует уже созданного автора.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldRetryWhenAuthorIsCreatedConcurrently() throws IOException {
+        final TransactionTemplate concurrentImport = new TransactionTemplate(transactionManager);
+        concurrentImport.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        final AtomicBoolean raced = new AtomicBoolean();
+        doAnswer(invocation -> {
+            final List<Author> found = entityManager
+                    .createQuery("select a from Author a where a.name in :names", Author.class)
+                    .setParameter("names", (Collection<String>) invocation.getArgument(0))
+                    .getResultList();
+            if (raced.compareAndSet(false, true)) {
+                concurrentImport.executeWithoutResult(status -> authorRepository.save(new Author(null, "Race author")));
+            }
+            return found;
+        }).when(authorRepository).findByNameIn(anyCollection());
+
+        final MovieImportResult result = movieImportService.importMovies("race-import", MovieImportFormat.NDJSON,
+                stream("{\"name\":\"Race movie\",\"authors\":[\"Race author\"]}\n"));
+
+        assertEquals(1, result.movies());
+        assertEquals(0, result.authors());
+        final Author author = authorRepository.findByName("Race author").orElseThrow();
+        transactionTemplate.executeWithoutResult(status ->
+                assertEquals(List.of(author), importedMovies("Race movie").get(0).getAuthors()));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> authorRepository.save(new Author(null, "Race author")));
+    }
+
+    private List<Movie> importedMovies(String namePrefix) {
+        return movieRepository.findAll().stream()
+                .filter(movie -> movie.getName().startsWith(namePrefix))
+                .sorted(Comparator.comparing(Movie::getId))
+                .toList();
+    }
+
+    private static String ndjson(String... names) {
+        final StringBuilder builder = new StringBuilder();
+        for (String name : names) {
+            builder.append("{\"name\":\"").append(name).append("\",\"authors\":[\"Resume author\"]}\n");
+        }
+        return builder.toString();
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.springpractice.task1;
+
+import com.example.springpractice.task1.domain.Author;
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.dto.MovieAuthorView;
+import com.example.springpractice.task1.dto.MovieSummary;
+import com.example.springpractice.task1.repository.MovieFetchPlan;
+import com.example.springpractice.task1.repository.MovieRepository;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестирование планов выборки и проекций фильмов.
+ * Количество запросов к БД не должно зависеть от количества фильмов на странице.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class MovieRepositoryTest {
+
+    private static final int MOVIES = 30;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    private Statistics statistics;
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        final Author first = testEntityManager.persist(new Author(null, "Author 1"));
+        final Author second = testEntityManager.persist(new Author(null, "Author 2"));
+        for (int i = 0; i < MOVIES; i++) {
+            final Movie movie = new Movie("Movie " + i);
+            movie.setAuthors(new ArrayList<>(List.of(first, second)));
+            ids.add(testEntityManager.persist(movie).getId());
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+        statistics = testEntityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    /**
+     * По умолчанию авторы не загружаются вместе с фильмом.
+     */
+    @Test
+    public void shouldNotLoadAuthorsByDefault() {
+        final Movie movie = movieRepository.findById(ids.get(0)).orElseThrow();
+
+        assertFalse(Hibernate.isInitialized(movie.getAuthors()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * План с авторами загружает фильмы и авторов одним запросом.
+     */
+    @Test
+    public void shouldLoadAuthorsWithFetchPlan() {
+        final Movie movie = movieRepository.findWithAuthorsById(ids.get(0)).orElseThrow();
+        assertTrue(Hibernate.isInitialized(movie.getAuthors()));
+
+        final List<Movie> movies = movieRepository.findAllById(ids, MovieFetchPlan.WITH_AUTHORS);
+        assertEquals(MOVIES, movies.size());
+        movies.forEach(m -> assertEquals(2, m.getAuthors().size()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Обход авторов у списка фильмов без плана догружает коллекции пачками, а не запросом на каждый фильм.
+     */
+    @Test
+    public void shouldBatchFetchAuthorsForSummaryPlan() {
+        final List<Movie> movies = movieRepository.findAllById(ids, MovieFetchPlan.SUMMARY);
+        movies.forEach(m -> assertEquals(2, m.getAuthors().size()));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Страница проекций и авторы этой страницы - два запроса при любом размере страницы.
+     */
+    @Test
+    public void shouldLoadPageOfSummariesWithAuthorsInConstantQueries() {
+        final Slice<MovieSummary> page = movieRepository.findSummariesBy(PageRequest.of(0, 20));
+        final List<MovieAuthorView> authors = movieRepository.findAuthorViews(
+                page.getContent().stream().map(MovieSummary::getId).toList());
+
+        assertEquals(20, page.getNumberOfElements());
+        assertTrue(page.hasNext());
+        assertEquals(40, authors.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Фильм без даты создания нельзя вставить даже в обход сущности: на дате строится позиция списка.
+     */
+    @Test
+    public void shouldRejectMovieWithoutCreatedAt() {
+        assertThrows(PersistenceException.class, () -> testEntityManager.getEntityManager()
+                .createNativeQuery("insert into movie (id, name, version) values (next value for movie_seq, 'Raw', 0)")
+                .executeUpdate());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.springpractice.task1;
+
+import com.example.springpractice.task1.conf.MovieRuntimeHints;
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task2.service.NewMovieService;
+import com.example.springpractice.task3.dto.Response;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестирование подсказок native image: то, что нужно Hibernate, транзакционному прокси и Jackson,
+ * проверяется на JVM без сборки образа.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public class MovieRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    public void shouldRegisterReflectionForEntitiesListenersAndProxiedServices() throws Exception {
+        new MovieRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onField(Movie.class.getDeclaredField("label")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onConstructor(Movie.class.getDeclaredConstructor()).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(AuditingEntityListener.class)
+                .withMemberCategories(MemberCategory.INVOKE_DECLARED_METHODS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(NewMovieService.class)
+                .withMemberCategories(MemberCategory.INVOKE_DECLARED_METHODS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Response.class, "message").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("application.conf").test(hints));
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.springpractice.task1;
+
+import com.example.springpractice.task1.domain.Author;
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.dto.MovieExport;
+import com.example.springpractice.task1.dto.MovieSearchHit;
+import com.example.springpractice.task1.repository.AuthorRepository;
+import com.example.springpractice.task1.repository.MovieRepository;
+import com.example.springpractice.task1.search.MovieSearchIndex;
+import com.example.springpractice.task1.search.MovieSearchMode;
+import com.example.springpractice.task1.service.LabelService;
+import com.example.springpractice.task1.service.MovieSearchService;
+import com.example.springpractice.task1.service.MovieService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестирование полнотекстового поиска: поиск по началу слов и с опечатками, по авторам,
+ * синхронизация индекса по событиям и перестроение из БД.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@SpringBootTest
+@DirtiesContext
+public class MovieSearchTest {
+
+    @TempDir
+    static Path indexDirectory;
+
+    @DynamicPropertySource
+    static void searchProperties(DynamicPropertyRegistry registry) {
+        registry.add("movie.search.enabled", () -> "true");
+        registry.add("movie.search.directory", () -> indexDirectory.toString());
+        registry.add("movie.search.linger", () -> "10ms");
+    }
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private MovieSearchService movieSearchService;
+
+    @Autowired
+    private LabelService labelService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void shouldFindCreatedMoviesByPrefixAndWithTypos() {
+        final List<Long> ids = movieService.createMovies(List.of("Zorblax Returns", "Zorblaxian Nights", "Amélie Quixotic"));
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> search("zorblax", MovieSearchMode.PREFIX).size() == 2);
+
+        assertEquals(List.of(ids.get(1)), ids(search("zorb nig", MovieSearchMode.PREFIX)));
+        assertEquals(List.of(ids.get(2)), ids(search("AMELIE", MovieSearchMode.PREFIX)));
+        assertEquals(List.of(ids.get(2)), ids(search("quixotc", MovieSearchMode.FUZZY)));
+        assertTrue(search("quixotc", MovieSearchMode.PREFIX).isEmpty());
+    }
+
+    /**
+     * Фильм, сохраненный в обход событий, находится только после перестроения индекса.
+     */
+    @Test
+    public void shouldFindByAuthorAfterRebuild() {
+        final Long movieId = new TransactionTemplate(transactionManager).execute(status -> {
+            final Movie movie = new Movie("Pulpish Fiction");
+            movie.setAuthors(List.of(authorRepository.save(new Author(null, "Quentin Vexmoor"))));
+            return movieRepository.save(movie).getId();
+        });
+        assertTrue(movieSearchService.search(null, "vexmo", MovieSearchMode.PREFIX, 10).isEmpty());
+
+        assertTrue(movieSearchService.rebuild() >= 1);
+
+        final List<MovieSearchHit> hits = movieSearchService.search(null, "vexmo", MovieSearchMode.PREFIX, 10);
+        assertEquals(List.of(new MovieSearchHit(movieId, "Pulpish Fiction", null, List.of("Quentin Vexmoor"))), hits);
+        assertEquals(1, movieSearchService.search("pulpish", "quentin", MovieSearchMode.PREFIX, 10).size());
+        assertTrue(movieSearchService.search("pulpish", "tarantino", MovieSearchMode.PREFIX, 10).isEmpty());
+    }
+
+    @Test
+    public void shouldReindexOnLabelChange() {
+        final Long movieId = movieService.createMovies(List.of("Glimmerdusk")).get(0);
+        await().atMost(Duration.ofSeconds(10)).until(() -> search("glimmerdusk", MovieSearchMode.PREFIX).size() == 1);
+
+        labelService.changeLabel(movieId, "noir");
+
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> "noir".equals(search("glimmerdusk", MovieSearchMode.PREFIX).get(0).label()));
+    }
+
+    /**
+     * Упавшее перестроение не фиксирует наполовину пустой индекс ни периодической фиксацией, ни при закрытии,
+     * а изменения, сделанные во время и после него, ищутся и сохраняются.
+     */
+    @Test
+    public void shouldKeepCommittedIndexWhenRebuildFails(@TempDir Path directory) throws IOException {
+        try (MovieSearchIndex index = MovieSearchIndex.open(directory)) {
+            index.rebuild(sink -> sink.accept(new MovieExport(1L, "Oldmoor", null, null, List.of())), ids -> List.of());
+        }
+
+        final MovieExport during = new MovieExport(3L, "Midmoor", null, null, List.of());
+        try (MovieSearchIndex index = MovieSearchIndex.open(directory)) {
+            assertThrows(IllegalStateException.class, () -> index.rebuild(sink -> {
+                sink.accept(new MovieExport(2L, "Newmoor", null, null, List.of()));
+                index.index(during);
+                index.commit();
+                throw new IllegalStateException("БД недоступна");
+            }, ids -> List.of(during)));
+            index.index(new MovieExport(4L, "Latemoor", null, null, List.of()));
+            index.commit();
+            index.refresh();
+            assertEquals(1, index.search("oldmoor", null, MovieSearchMode.PREFIX, 10).size());
+            assertEquals(1, index.search("midmoor", null, MovieSearchMode.PREFIX, 10).size());
+            assertEquals(1, index.search("latemoor", null, MovieSearchMode.PREFIX, 10).size());
+            assertTrue(index.search("newmoor", null, MovieSearchMode.PREFIX, 10).isEmpty());
+        }
+
+        try (MovieSearchIndex index = MovieSearchIndex.open(directory)) {
+            assertEquals(3, index.size());
+            assertEquals(1L, index.search("oldmoor", null, MovieSearchMode.PREFIX, 10).get(0).id());
+        }
+    }
+
+    /**
+     * Изменение, проиндексированное во время перестроения, не затирается более старой строкой каталога.
+     */
+    @Test
+    public void shouldReplayChangesMadeDuringRebuild(@TempDir Path directory) throws IOException {
+        final MovieExport fresh = new MovieExport(1L, "Greyfen", "noir", null, List.of());
+        try (MovieSearchIndex index = MovieSearchIndex.open(directory)) {
+            index.rebuild(sink -> {
+                index.index(fresh);
+                index.delete(2L);
+                sink.accept(new MovieExport(1L, "Greyfen", null, null, List.of()));
+                sink.accept(new MovieExport(2L, "Deadfen", null, null, List.of()));
+            }, ids -> ids.contains(1L) ? List.of(fresh) : List.of());
+
+            assertEquals("noir", index.search("greyfen", null, MovieSearchMode.PREFIX, 10).get(0).label());
+            assertTrue(index.search("deadfen", null, MovieSearchMode.PREFIX, 10).isEmpty());
+        }
+    }
+
+    private List<MovieSearchHit> search(String text, MovieSearchMode mode) {
+        return movieSearchService.search(text, null, mode, 10);
+    }
+
+    private static List<Long> ids(List<MovieSearchHit> hits) {
+        return hits.stream().map(MovieSearchHit::id).toList();
+    }
+}
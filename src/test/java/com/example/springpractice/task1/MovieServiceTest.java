@@ -1,11 +1,15 @@
 package com.example.springpractice.task1;
 
 import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.event.MovieBatchCreatedEvent;
 import com.example.springpractice.task1.event.MovieCreatedEvent;
 import com.example.springpractice.task1.listener.MovieCreatedEventProcessor;
 import com.example.springpractice.task1.repository.MovieRepository;
 import com.example.springpractice.task1.service.MovieService;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -14,6 +18,7 @@ import org.springframework.context.event.ApplicationEventMulticaster;
 import org.springframework.context.event.SmartApplicationListener;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
@@ -30,6 +35,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -40,10 +46,12 @@ import static org.mockito.Mockito.verify;
  * @author Klim Ross
  * @since 2023.12.02
  */
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @Slf4j
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 @ActiveProfiles("task1")
+// @SpyBean не поддерживается AOT обработкой тестовых контекстов, в native image тест не запускается
+@DisabledInAotMode
 public class MovieServiceTest {
 
     public static final String TEST_MOVIE_NAME = "Movie 1";
@@ -56,6 +64,9 @@ public class MovieServiceTest {
     @Autowired
     private ApplicationEventMulticaster applicationEventMulticaster;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @SpyBean
     private MovieCreatedEventProcessor movieCreatedEventProcessor;
 
@@ -180,6 +191,41 @@ public class MovieServiceTest {
         assertEquals(createdMovie.getLabel(), persistedMovieOpt.get().getLabel(), "лейбл сохранен");
     }
 
+    /**
+     * Пакетное сохранение фильмов: все фильмы сохраняются в одной транзакции JDBC батчами,
+     * на пакет публикуется одно событие, и обработчик в той же транзакции проставляет лейбл всем фильмам.
+     */
+    @Test
+    public void shouldPersistMoviesInBatch() {
+        workingListeners("processMovieCreatedEventSameTxn");
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            names.add("Movie " + i);
+        }
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        final List<Long> ids = movieService.createMovies(names);
+
+        assertEquals(names.size(), ids.size());
+        assertEquals(names.size(), statistics.getEntityInsertCount());
+        // на чанк из 50 фильмов - выборка блока id из последовательности и один батч вставок, плюс UPDATE лейбла:
+        // число подготовленных запросов зависит от числа чанков, а не фильмов
+        final int chunks = (names.size() + 49) / 50;
+        assertTrue(statistics.getPrepareStatementCount() <= 3L * chunks,
+                "подготовлено запросов: " + statistics.getPrepareStatementCount());
+        verify(movieCreatedEventProcessor, times(1))
+                .processMovieBatchCreatedEventSameTxn(any(MovieBatchCreatedEvent.class));
+        verify(movieCreatedEventProcessor, never())
+                .processMovieCreatedEventSameTxn(any(MovieCreatedEvent.class));
+        final List<Movie> persisted = movieRepository.findAllById(ids);
+        assertEquals(names.size(), persisted.size());
+        persisted.forEach(movie -> {
+            assertEquals(names.get(ids.indexOf(movie.getId())), movie.getName());
+            assertNotNull(movie.getLabel(), "лейбл сохранен");
+        });
+    }
+
     /**
      * Очищает неиспользуемые в тесте обработчики.
      */
@@ -0,0 +1,94 @@
+package com.example.springpractice.task1;
+
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.repository.MovieRepository;
+import com.example.springpractice.task1.service.LabelService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Тестирование оптимистической блокировки фильма: изменение устаревшей копии не затирает чужое изменение,
+ * а параллельные условные UPDATE лейбла не теряются благодаря повтору.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@SpringBootTest(properties = "movie.optimistic-retry.max-attempts=50")
+@DirtiesContext
+public class OptimisticLockingTest {
+
+    private static final int WRITERS = 8;
+    private static final int CHANGES_PER_WRITER = 10;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private LabelService labelService;
+
+    @Test
+    public void shouldRejectStaleCopy() {
+        final Movie movie = movieRepository.save(new Movie("Stale movie"));
+        final Movie first = movieRepository.findById(movie.getId()).orElseThrow();
+        final Movie second = movieRepository.findById(movie.getId()).orElseThrow();
+
+        first.setLabel("first");
+        movieRepository.save(first);
+        second.setLabel("second");
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> movieRepository.save(second));
+        assertEquals("first", movieRepository.findById(movie.getId()).orElseThrow().getLabel());
+    }
+
+    @Test
+    public void shouldBumpVersionOnBulkUpdate() {
+        final Movie movie = movieRepository.save(new Movie("Bulk movie"));
+
+        labelService.assignLabels(List.of(movie.getId()));
+
+        assertEquals(movie.getVersion() + 1, movieRepository.findVersionById(movie.getId()).orElseThrow());
+    }
+
+    @Test
+    public void shouldNotLoseConcurrentLabelChanges() throws Exception {
+        final Movie movie = movieRepository.save(new Movie("Contended movie"));
+        final ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        final CountDownLatch start = new CountDownLatch(1);
+        try {
+            final List<Future<?>> writers = new ArrayList<>();
+            for (int writer = 0; writer < WRITERS; writer++) {
+                final String label = "label " + writer;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < CHANGES_PER_WRITER; i++) {
+                        labelService.changeLabel(movie.getId(), label);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // каждое изменение прошло ровно одним UPDATE и подняло версию
+        assertEquals(movie.getVersion() + WRITERS * CHANGES_PER_WRITER,
+                movieRepository.findVersionById(movie.getId()).orElseThrow());
+    }
+}
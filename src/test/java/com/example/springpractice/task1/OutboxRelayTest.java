@@ -0,0 +1,119 @@
+package com.example.springpractice.task1;
+
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.domain.OutboxEvent;
+import com.example.springpractice.task1.listener.OutboxRelay;
+import com.example.springpractice.task1.repository.MovieRepository;
+import com.example.springpractice.task1.repository.OutboxEventRepository;
+import com.example.springpractice.task1.service.LabelService;
+import com.example.springpractice.task1.service.MovieService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.aot.DisabledInAotMode;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Тестирование транзакционного outbox: событие пишется в транзакции создания фильма
+ * и доставляется ретранслятором после фиксации.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@SpringBootTest(properties = {
+        "movie.outbox.enabled=true",
+        "movie.outbox.poll-interval=1h",
+        "movie.outbox.batch-size=10"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+// @SpyBean не поддерживается AOT обработкой тестовых контекстов, в native image тест не запускается
+@DisabledInAotMode
+public class OutboxRelayTest {
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @SpyBean
+    private LabelService labelService;
+
+    /**
+     * Событие создания фильма фиксируется вместе с фильмом, ретранслятор доставляет его пачками и удаляет из outbox.
+     */
+    @Test
+    public void shouldRelayMovieCreatedEvents() {
+        final List<Long> ids = movieService.createMovies(List.of("A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L"));
+
+        // фильм сохранен, лейбл еще не присвоен, событие ждет в outbox
+        assertEquals(ids.size(), outboxEventRepository.count());
+        assertTrue(movieRepository.findAllById(ids).stream().map(Movie::getLabel).allMatch(label -> label == null));
+
+        assertEquals(ids.size(), outboxRelay.relay());
+
+        assertEquals(0, outboxEventRepository.count());
+        assertTrue(movieRepository.findAllById(ids).stream()
+                .allMatch(movie -> "movie company label".equals(movie.getLabel())));
+    }
+
+    /**
+     * События без обработчика остаются в outbox, а после исчерпания попыток помечаются FAILED и больше не забираются.
+     */
+    @Test
+    public void shouldMarkUndeliverableEventsAsFailed() {
+        outboxEventRepository.save(new OutboxEvent("Unknown", 1L));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, outboxRelay.relay());
+        }
+
+        final OutboxEvent event = outboxEventRepository.findAll().get(0);
+        assertEquals(OutboxEvent.Status.FAILED, event.getStatus());
+        assertEquals(5, event.getAttempts());
+        assertEquals(0, outboxRelay.relay());
+        assertNull(movieRepository.findById(1L).map(Movie::getLabel).orElse(null));
+    }
+
+    /**
+     * Событие, обработчик которого падает, не мешает доставке остальных событий того же типа из его пачки:
+     * попытки засчитываются только ему.
+     */
+    @Test
+    public void shouldIsolatePoisonEvent() {
+        final List<Long> ids = movieService.createMovies(List.of("A", "B", "C", "D", "E"));
+        final Long poison = ids.get(2);
+        doThrow(new IllegalStateException("Негодное событие"))
+                .when(labelService).assignLabels(argThat(movieIds -> movieIds.contains(poison)));
+
+        assertEquals(ids.size() - 1, outboxRelay.relay());
+
+        final OutboxEvent event = outboxEventRepository.findAll().get(0);
+        assertEquals(1, outboxEventRepository.count());
+        assertEquals(poison, event.getAggregateId());
+        assertEquals(1, event.getAttempts());
+        assertEquals(OutboxEvent.Status.NEW, event.getStatus());
+        assertTrue(movieRepository.findAllById(ids).stream()
+                .allMatch(movie -> movie.getId().equals(poison) == (movie.getLabel() == null)));
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, outboxRelay.relay());
+        }
+        assertEquals(OutboxEvent.Status.FAILED, outboxEventRepository.findAll().get(0).getStatus());
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.springpractice.task1;
+
+import com.example.springpractice.task1.conf.ReplicaLagMonitor;
+import com.example.springpractice.task1.domain.IdempotencyRecord;
+import com.example.springpractice.task1.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестирование маршрутизации соединений на двух экземплярах H2: транзакции только для чтения классов приложения
+ * идут в реплику, остальные и транзакции репозиториев - в основную базу, при отставании реплики чтение
+ * возвращается в основную базу.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@SpringBootTest(properties = {
+        "movie.datasource.routing.enabled=true",
+        "movie.datasource.routing.replica.url=jdbc:h2:mem:replicadb;DB_CLOSE_DELAY=-1;"
+                + "INIT=CREATE TABLE IF NOT EXISTS replica_lag(lag_seconds DOUBLE)",
+        "movie.datasource.routing.lag-query=SELECT COALESCE(MAX(lag_seconds), 0) FROM replica_lag",
+        "movie.datasource.routing.max-lag=5s"
+})
+@DirtiesContext
+public class ReadWriteRoutingTest {
+
+    private static final String PRIMARY_DATABASE = "TESTDB";
+    private static final String REPLICA_DATABASE = "REPLICADB";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @AfterEach
+    public void resetLag() {
+        new JdbcTemplate(replicaDataSource).update("DELETE FROM replica_lag");
+        replicaLagMonitor.check();
+    }
+
+    @Test
+    public void shouldRouteReadOnlyTransactionsToReplica() {
+        assertEquals(REPLICA_DATABASE, database(true));
+        assertEquals(PRIMARY_DATABASE, database(false));
+        assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", "replica").gauge());
+        assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", "primary").gauge());
+    }
+
+    @Test
+    public void shouldFallBackToPrimaryWhileReplicaLags() {
+        new JdbcTemplate(replicaDataSource).update("INSERT INTO replica_lag VALUES (60)");
+        replicaLagMonitor.check();
+
+        assertFalse(replicaLagMonitor.isAvailable());
+        assertEquals(PRIMARY_DATABASE, database(true));
+
+        new JdbcTemplate(replicaDataSource).update("DELETE FROM replica_lag");
+        replicaLagMonitor.check();
+
+        assertTrue(replicaLagMonitor.isAvailable());
+        assertEquals(REPLICA_DATABASE, database(true));
+    }
+
+    /**
+     * Репозиторий вне транзакции открывает транзакцию только для чтения сам - она идет в основную базу
+     * и видит только что сохраненную запись: в реплике таблицы нет вовсе.
+     */
+    @Test
+    public void shouldReadOwnWritesThroughRepositoryOutsideTransaction() {
+        final IdempotencyRecord record = new IdempotencyRecord();
+        record.setKey("routing-key");
+        record.setStatus(201);
+        record.setCreatedAt(Instant.now());
+        idempotencyRecordRepository.save(record);
+
+        assertTrue(idempotencyRecordRepository
+                .findByKeyAndCreatedAtAfter("routing-key", Instant.now().minusSeconds(60)).isPresent());
+        assertEquals(PRIMARY_DATABASE, database(true, null));
+    }
+
+    private String database(boolean readOnly) {
+        return database(readOnly, ReadWriteRoutingTest.class.getName() + ".database");
+    }
+
+    private String database(boolean readOnly, String name) {
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        transactionTemplate.setName(name);
+        return transactionTemplate.execute(
+                status -> (String) entityManager.createNativeQuery("SELECT DATABASE()").getSingleResult());
+    }
+}
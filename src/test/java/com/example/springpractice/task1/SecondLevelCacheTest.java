@@ -0,0 +1,67 @@
+package com.example.springpractice.task1;
+
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.repository.MovieRepository;
+import com.example.springpractice.task1.service.LabelService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестирование кэша второго уровня: повторное чтение фильма не идет в базу,
+ * а массовое обновление лейбла вытесняет из региона только измененные фильмы.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DirtiesContext
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private LabelService labelService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void shouldReadMovieFromCacheAndEvictOnlyUpdatedMovies() {
+        final Movie movie = movieRepository.save(new Movie("Cached movie"));
+        final Movie other = movieRepository.save(new Movie("Other cached movie"));
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // после фиксации вставки фильм уже в кэше - чтение без обращения к базе
+        assertEquals("Cached movie", movieRepository.findById(movie.getId()).orElseThrow().getName());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("movie").getHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // кэшированный запрос должен увидеть новый лейбл
+        assertNull(movieRepository.findWithAuthorsById(movie.getId()).orElseThrow().getLabel());
+
+        // UPDATE вытесняет из региона только обновленный фильм, следующее чтение видит новый лейбл
+        labelService.assignLabels(List.of(movie.getId()));
+        assertFalse(entityManagerFactory.getCache().contains(Movie.class, movie.getId()));
+        assertTrue(entityManagerFactory.getCache().contains(Movie.class, other.getId()));
+        assertTrue(movieRepository.findById(movie.getId()).orElseThrow().getLabel() != null);
+        assertTrue(movieRepository.findWithAuthorsById(movie.getId()).orElseThrow().getLabel() != null);
+
+        labelService.changeLabel(other.getId(), "noir");
+        assertFalse(entityManagerFactory.getCache().contains(Movie.class, other.getId()));
+        assertEquals("noir", movieRepository.findById(other.getId()).orElseThrow().getLabel());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.springpractice.task1;
+
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task2.service.NewMovieService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестирование метрик транзакций: исход и причина отката транзакционных методов, вид физических транзакций.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@SpringBootTest
+@DirtiesContext
+@ActiveProfiles("task2")
+public class TransactionMetricsTest {
+
+    @Autowired
+    private NewMovieService newMovieService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Внешний метод откатывается исключением, а фильм уже сохранен в отдельной транзакции REQUIRES_NEW - это видно по метрикам.
+     */
+    @Test
+    public void shouldRecordRollbackCauseAndRequiresNewTransaction() {
+        assertThrows(RuntimeException.class,
+                () -> newMovieService.createMovieAndAssignLabelSeparatelyWithEx("Movie", "Movie"));
+
+        final Timer outer = meterRegistry.get("movie.tx.method")
+                .tag("method", "NewMovieService.createMovieAndAssignLabelSeparatelyWithEx")
+                .tag("outcome", "rollback")
+                .tag("exception", "RuntimeException")
+                .tag("joined", "false")
+                .timer();
+        assertEquals(1, outer.count());
+
+        final Timer separate = meterRegistry.get("movie.tx.method")
+                .tag("method", "NewMovieService.createMovieInSeparateTxn")
+                .tag("propagation", "REQUIRES_NEW")
+                .tag("outcome", "commit")
+                .timer();
+        assertEquals(1, separate.count());
+
+        final Timer requiresNew = meterRegistry.get("movie.tx.connection.hold")
+                .tag("kind", "requires_new")
+                .tag("outcome", "commit")
+                .timer();
+        assertEquals(1, requiresNew.count());
+        assertTrue(requiresNew.getId().getTag("name").endsWith("NewMovieService.createMovieInSeparateTxn"));
+
+        assertEquals(1, meterRegistry.get("movie.tx.connection.hold")
+                .tag("kind", "required")
+                .tag("outcome", "rollback")
+                .timer().count());
+    }
+
+    /**
+     * Проверяемое исключение не откатывает транзакцию - метод записывается как зафиксированный с исключением.
+     */
+    @Test
+    public void shouldRecordCommitOnCheckedException() {
+        final Movie movie = newMovieService.createMovie("Movie");
+
+        assertThrows(Exception.class, () -> newMovieService.assignLabelInTxn(movie, "label"));
+
+        assertEquals(1, meterRegistry.get("movie.tx.method")
+                .tag("method", "NewMovieService.assignLabelInTxn")
+                .tag("outcome", "commit")
+                .tag("exception", "Exception")
+                .timer().count());
+        assertEquals(0, meterRegistry.get("movie.tx.active").longTaskTimer().activeTasks());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.springpractice.task3;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+
+/**
+ * Тест быстрого пути аутентификации: кэш проверенных учетных данных, перехеширование паролей
+ * с устаревшей стоимостью BCrypt и подписанные токены.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@SpringBootTest(properties = {"movie.security.bcrypt-strength=5", "movie.security.token.enabled=true"})
+@AutoConfigureMockMvc
+@DirtiesContext
+public class AuthenticationCacheTest {
+
+    private static final String TOKEN_HEADER = "X-Auth-Token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InMemoryUserDetailsManager userDetailsManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testRepeatedBasicHitsCache() throws Exception {
+        userDetailsManager.createUser(User.withUsername("cached")
+                .password(new BCryptPasswordEncoder(5).encode("pass"))
+                .roles("ADMIN")
+                .build());
+        double hitsBefore = credentials("hit");
+
+        assertEquals(200, get("cached", "pass").getStatus());
+        assertEquals(hitsBefore, credentials("hit"));
+        assertEquals(200, get("cached", "pass").getStatus());
+        assertEquals(hitsBefore + 1, credentials("hit"));
+        assertEquals(401, get("cached", "wrong").getStatus());
+    }
+
+    @Test
+    public void testWeakHashIsUpgradedOnLogin() throws Exception {
+        userDetailsManager.createUser(User.withUsername("legacy")
+                .password(new BCryptPasswordEncoder(4).encode("old"))
+                .roles("ADMIN")
+                .build());
+
+        assertEquals(200, get("legacy", "old").getStatus());
+
+        String upgraded = userDetailsManager.loadUserByUsername("legacy").getPassword();
+        assertTrue(upgraded.startsWith("$2a$05$"), upgraded);
+        assertEquals(200, get("legacy", "old").getStatus());
+    }
+
+    @Test
+    public void testSignedToken() throws Exception {
+        MockHttpServletResponse basic = get("spring", "secret");
+        String token = basic.getHeader(TOKEN_HEADER);
+        assertEquals(200, basic.getStatus());
+        assertNotNull(token);
+
+        MockHttpServletResponse bearer = mockMvc.perform(MockMvcRequestBuilders.get("/movie?size=1")
+                        .header("Authorization", "Bearer " + token))
+                .andReturn().getResponse();
+        assertEquals(200, bearer.getStatus());
+        assertNull(bearer.getHeader(TOKEN_HEADER));
+
+        int dot = token.indexOf('.');
+        String tampered = token.substring(0, dot - 1) + (token.charAt(dot - 1) == 'A' ? "B" : "A") + token.substring(dot);
+        assertEquals(401, mockMvc.perform(MockMvcRequestBuilders.get("/movie?size=1")
+                        .header("Authorization", "Bearer " + tampered))
+                .andReturn().getResponse().getStatus());
+    }
+
+    private MockHttpServletResponse get(String username, String password) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.get("/movie?size=1").with(httpBasic(username, password)))
+                .andReturn().getResponse();
+    }
+
+    private double credentials(String result) {
+        return meterRegistry.get("movie.security.credentials").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.springpractice.task3;
+
+import com.example.springpractice.task3.filter.DataSourceConcurrencyLimitFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестирование ограничителя одновременных запросов.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+public class DataSourceConcurrencyLimitFilterTest {
+
+    /**
+     * Пока разрешение занято, следующий запрос получает 503, после освобождения запросы снова проходят.
+     */
+    @Test
+    public void shouldRejectRequestsOverLimit() throws Exception {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        final DataSourceConcurrencyLimitFilter filter =
+                new DataSourceConcurrencyLimitFilter(1, Duration.ofMillis(50), registry);
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final CompletableFuture<MockHttpServletResponse> slow = CompletableFuture.supplyAsync(() -> {
+            final MockHttpServletResponse response = new MockHttpServletResponse();
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/movie"), response, (req, resp) -> {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return response;
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        final MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/movie"), rejected, (req, resp) -> {
+        });
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), rejected.getStatus());
+        assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, registry.get("movie.concurrency.rejected").counter().count());
+
+        release.countDown();
+        assertEquals(HttpStatus.OK.value(), slow.get(5, TimeUnit.SECONDS).getStatus());
+
+        final MockHttpServletResponse passed = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/movie"), passed, (req, resp) -> {
+        });
+        assertEquals(HttpStatus.OK.value(), passed.getStatus());
+    }
+}
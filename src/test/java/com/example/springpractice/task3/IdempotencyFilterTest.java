@@ -0,0 +1,132 @@
+package com.example.springpractice.task3;
+
+import com.example.springpractice.task1.repository.IdempotencyRecordRepository;
+import com.example.springpractice.task1.repository.MovieRepository;
+import com.example.springpractice.task3.dto.Response;
+import com.example.springpractice.task3.filter.IdempotencyFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+
+/**
+ * Тест идемпотентного создания фильмов: повтор с тем же ключом получает первый ответ, а фильм создается один раз.
+ * Ответы хранятся в БД с кэшем в памяти.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@SpringBootTest(properties = {"movie.idempotency.enabled=true", "movie.idempotency.store=database"})
+@AutoConfigureMockMvc
+@DirtiesContext
+public class IdempotencyFilterTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    /**
+     * MockMvc из автоконфигурации - с зарегистрированными в контексте фильтрами, включая фильтр идемпотентности.
+     */
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testReplayWithSameKey() throws Exception {
+        long moviesBefore = movieRepository.count();
+
+        MockHttpServletResponse first = create("spring", "replay-key");
+        MockHttpServletResponse second = create("spring", "replay-key");
+
+        assertEquals(201, first.getStatus());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED));
+        assertEquals(201, second.getStatus());
+        assertEquals("true", second.getHeader(IdempotencyFilter.REPLAYED));
+        assertEquals(movieId(first), movieId(second));
+        assertEquals(moviesBefore + 1, movieRepository.count());
+        assertEquals(1, idempotencyRecordRepository.findAll().stream()
+                .filter(record -> record.getKey().endsWith(":replay-key"))
+                .count());
+    }
+
+    @Test
+    public void testKeyIsScopedByUser() throws Exception {
+        MockHttpServletResponse spring = create("spring", "shared-key");
+        MockHttpServletResponse other = create("other", "shared-key");
+
+        assertNull(other.getHeader(IdempotencyFilter.REPLAYED));
+        assertNotEquals(movieId(spring), movieId(other));
+    }
+
+    @Test
+    public void testConcurrentDuplicatesCoalesce() throws Exception {
+        final int requests = 4;
+        final ExecutorService executor = Executors.newFixedThreadPool(requests);
+        final CountDownLatch start = new CountDownLatch(1);
+        final Set<String> ids = new HashSet<>();
+        try {
+            final List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return create("spring", "concurrent-key");
+                }));
+            }
+            start.countDown();
+            for (Future<MockHttpServletResponse> response : responses) {
+                assertEquals(201, response.get().getStatus());
+                ids.add(movieId(response.get()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, ids.size());
+    }
+
+    private MockHttpServletResponse create(String username, String idempotencyKey) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.post("/movie")
+                        .with(user(username))
+                        .with(csrf())
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY, idempotencyKey)
+                        .content(objectMapper.writeValueAsString("Idempotent movie"))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andReturn()
+                .getResponse();
+    }
+
+    private String movieId(MockHttpServletResponse response) throws Exception {
+        Response body = objectMapper.readValue(response.getContentAsString(StandardCharsets.UTF_8), Response.class);
+        assertTrue(body.messageAdditional() != null);
+        return body.messageAdditional();
+    }
+}
@@ -1,12 +1,18 @@
 package com.example.springpractice.task3;
 
+import com.example.springpractice.task1.domain.Author;
+import com.example.springpractice.task1.domain.Movie;
+import com.example.springpractice.task1.repository.AuthorRepository;
+import com.example.springpractice.task1.repository.MovieRepository;
 import com.example.springpractice.task3.controller.MovieController;
 import com.example.springpractice.task3.dto.Response;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -14,15 +20,25 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.util.MimeTypeUtils.APPLICATION_JSON_VALUE;
 
@@ -46,6 +62,12 @@ public class MovieControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
     @BeforeEach
     public void setUp() {
         mockMvc = MockMvcBuilders
@@ -72,7 +94,7 @@ public class MovieControllerTest {
                 .getResponse()
                 .getContentAsString();
         Response response = objectMapper.readValue(resultJson, Response.class);
-        assertEquals("OK", response.getMessage());
+        assertEquals("OK", response.message());
 
         // отправляем запрос с требованием получить исключение
         resultJson = mockMvc.perform(MockMvcRequestBuilders.get(url)
@@ -85,8 +107,8 @@ public class MovieControllerTest {
                 .getContentAsString();
 
         response = objectMapper.readValue(resultJson, Response.class);
-        assertNotNull(response.getMessage());
-        assertTrue(response.getMessageAdditional().contains("Ваши ожидания - Ваши проблемы"));
+        assertNotNull(response.message());
+        assertTrue(response.messageAdditional().contains("Ваши ожидания - Ваши проблемы"));
     }
 
 
@@ -112,8 +134,124 @@ public class MovieControllerTest {
                 .getContentAsString();
 
         Response response = objectMapper.readValue(resultJson, Response.class);
-        assertNotNull(response.getMessage());
-        assertTrue(response.getMessage().contains("Фильм то сохранили, но лейбл присвоить не удалось."));
-        assertTrue(response.getMessageAdditional().contains("Id фильма, если пригодится"));
+        assertNotNull(response.message());
+        assertTrue(response.message().contains("Фильм то сохранили, но лейбл присвоить не удалось."));
+        assertTrue(response.messageAdditional().contains("Id фильма, если пригодится"));
+    }
+
+    /**
+     * Вызывается эндпоинт списка фильмов.
+     * Страницы выбираются по позиции из ответа предыдущей страницы, фильмы идут от новых к старым.
+     */
+    @WithMockUser(value = "spring")
+    @Test
+    public void testListMoviesByKeyset() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            Movie movie = new Movie("Keyset movie " + i);
+            movie.setLabel(i == 1 ? "keyset label" : null);
+            movieRepository.save(movie);
+        }
+
+        JsonNode firstPage = listMovies("size", "2");
+        assertEquals(2, firstPage.get("items").size());
+        assertEquals("Keyset movie 2", firstPage.get("items").get(0).get("name").asText());
+        assertEquals("Keyset movie 1", firstPage.get("items").get(1).get("name").asText());
+        assertTrue(firstPage.hasNonNull("next"));
+
+        JsonNode secondPage = listMovies("size", "2", "after", firstPage.get("next").asText());
+        assertEquals(1, secondPage.get("items").size());
+        assertEquals("Keyset movie 0", secondPage.get("items").get(0).get("name").asText());
+        assertTrue(secondPage.get("next").isNull());
+
+        JsonNode labelled = listMovies("label", "keyset label");
+        assertEquals(1, labelled.get("items").size());
+        assertEquals("Keyset movie 1", labelled.get("items").get(0).get("name").asText());
+    }
+
+    /**
+     * Вызывается эндпоинт выгрузки каталога в NDJSON и в сжатом CSV.
+     */
+    @WithMockUser(value = "spring")
+    @Test
+    public void testExportMovies() throws Exception {
+        List<Author> authors = authorRepository.saveAll(List.of(new Author(null, "Export author A"), new Author(null, "Export author B")));
+        Movie withAuthors = new Movie("Export movie, with authors");
+        withAuthors.setAuthors(authors);
+        movieRepository.save(withAuthors);
+        movieRepository.save(new Movie("Export movie without authors"));
+
+        String ndjson = mockMvc.perform(MockMvcRequestBuilders.get("/movie/export"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+        List<JsonNode> exported = ndjson.lines()
+                .map(line -> {
+                    try {
+                        return objectMapper.readTree(line);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .filter(node -> node.get("name").asText().startsWith("Export movie"))
+                .toList();
+        assertEquals(2, exported.size());
+        assertEquals(2, exported.get(0).get("authors").size());
+        assertEquals(0, exported.get(1).get("authors").size());
+
+        MvcResult csvResult = mockMvc.perform(MockMvcRequestBuilders.get("/movie/export")
+                        .param("format", "csv")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertEquals("gzip", csvResult.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        byte[] compressed = csvResult.getResponse().getContentAsByteArray();
+        String csv;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<String> lines = Arrays.asList(csv.split("\r\n"));
+        assertEquals("id,name,label,created_at,authors", lines.get(0));
+        assertTrue(lines.stream().anyMatch(line -> line.contains("\"Export movie, with authors\",,")
+                && line.endsWith(",Export author A;Export author B")));
+    }
+
+    private JsonNode listMovies(String... params) throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/movie")
+                .param("namePrefix", "Keyset movie")
+                .accept(APPLICATION_JSON_VALUE);
+        for (int i = 0; i < params.length; i += 2) {
+            request.param(params[i], params[i + 1]);
+        }
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String json = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(json);
+    }
+
+    /**
+     * Импорт без идентификатора отклоняется: повтор такого запроса не смог бы продолжить прерванный импорт.
+     */
+    @Test
+    @WithMockUser(value = "spring")
+    public void shouldRequireImportId() throws Exception {
+        final String csv = "name,label,authors\nImported movie,imported,Import Author\n";
+        mockMvc.perform(MockMvcRequestBuilders.post("/movie/import")
+                        .with(csrf())
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/movie/import")
+                        .with(csrf())
+                        .param("importId", "controller-import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk());
     }
 }
@@ -0,0 +1,110 @@
+package com.example.springpractice.task3;
+
+import com.example.springpractice.task1.repository.MovieRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Тест асинхронного создания фильмов: запрос принимается с 202, состояние задания опрашивается по Location.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@SpringBootTest(properties = "movie.jobs.enabled=true")
+@DirtiesContext
+public class MovieJobControllerTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @WithMockUser(value = "spring")
+    @Test
+    public void testCreateAsyncAndPoll() throws Exception {
+        MvcResult accepted = mockMvc.perform(post("/movie/async"))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        String location = accepted.getResponse().getHeader(HttpHeaders.LOCATION);
+        JsonNode job = objectMapper.readTree(accepted.getResponse().getContentAsString());
+        assertEquals("/movie/jobs/" + job.get("id").asText(), location);
+
+        for (int i = 0; i < 100 && !job.get("completed").asBoolean(); i++) {
+            Thread.sleep(50);
+            job = objectMapper.readTree(mockMvc.perform(MockMvcRequestBuilders.get(location))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString());
+        }
+        assertEquals("DONE", job.get("state").asText());
+        assertTrue(movieRepository.existsById(job.get("movieId").asLong()));
+    }
+
+    @WithMockUser(value = "spring")
+    @Test
+    public void testCreateAsyncAndWait() throws Exception {
+        MvcResult started = mockMvc.perform(post("/movie/async").param("wait", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        JsonNode job = objectMapper.readTree(mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+
+        assertEquals("DONE", job.get("state").asText());
+        assertTrue(movieRepository.existsById(job.get("movieId").asLong()));
+    }
+
+    @WithMockUser(value = "spring")
+    @Test
+    public void testUnknownJob() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/movie/jobs/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    private MockHttpServletRequestBuilder post(String url) throws Exception {
+        return MockMvcRequestBuilders.post(url)
+                .with(csrf())
+                .content(objectMapper.writeValueAsString("Async movie"))
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.springpractice.task3;
+
+import com.example.springpractice.task3.exception.InvalidMovieRequestException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Тест ответов об ошибках в формате RFC 7807 и счетчиков ошибок.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@SpringBootTest(properties = "movie.errors.problem-details=true")
+@ActiveProfiles("task3")
+@DirtiesContext
+public class MovieProblemDetailTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @WithMockUser(value = "spring")
+    @Test
+    public void testClientErrorProblem() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/movie/exception").param("exception", "true"))
+                    .andExpect(status().isConflict())
+                    .andReturn();
+            assertEquals(MediaType.APPLICATION_PROBLEM_JSON_VALUE, result.getResponse().getContentType());
+            JsonNode problem = objectMapper.readTree(result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+            assertEquals("urn:movie:problem:bad-request", problem.get("type").asText());
+            assertEquals("Что-то не так", problem.get("detail").asText());
+            assertEquals(409, problem.get("status").asInt());
+        }
+
+        assertEquals(3, meterRegistry.get("movie.errors")
+                .tag("exception", InvalidMovieRequestException.class.getSimpleName())
+                .counter().count());
+        assertEquals(0, new InvalidMovieRequestException("без стека").getStackTrace().length);
+    }
+
+    @WithMockUser(value = "spring")
+    @Test
+    public void testServerErrorProblem() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/movie")
+                        .with(csrf())
+                        .content(objectMapper.writeValueAsString("какой то фильм"))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isInternalServerError())
+                .andReturn();
+
+        JsonNode problem = objectMapper.readTree(result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+        assertEquals("urn:movie:problem:label-failed", problem.get("type").asText());
+        assertEquals("Фильм то сохранили, но лейбл присвоить не удалось.", problem.get("detail").asText());
+        assertTrue(problem.hasNonNull("movieId"));
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.springpractice.task3;
+
+import com.example.springpractice.task1.service.MovieService;
+import com.example.springpractice.task3.dto.Response;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Тест ендпоинтов поиска: проверка параметров поиска, перестроение индекса доступно только ADMIN и идет в фоне.
+ *
+ * @author Klim Ross
+ * @since 2026.10.17
+ */
+@SpringBootTest
+@DirtiesContext
+public class MovieSearchControllerTest {
+
+    @TempDir
+    static Path indexDirectory;
+
+    @DynamicPropertySource
+    static void searchProperties(DynamicPropertyRegistry registry) {
+        registry.add("movie.search.enabled", () -> "true");
+        registry.add("movie.search.directory", () -> indexDirectory.toString());
+        registry.add("movie.search.linger", () -> "10ms");
+    }
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MovieService movieService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @WithMockUser(value = "spring")
+    @Test
+    public void testSearchParameters() throws Exception {
+        final Long movieId = movieService.createMovies(List.of("Brambleworth Saga")).get(0);
+        await().atMost(Duration.ofSeconds(10)).pollInSameThread().until(() -> search("q", "bramble").size() == 1);
+
+        assertEquals(movieId, search("q", "br").get(0).get("id").asLong());
+        assertEquals(movieId, search("q", "BRAMBLEWROTH", "mode", "FUZZY").get(0).get("id").asLong());
+        assertTrue(search("q", "bramble", "size", "1").size() <= 1);
+
+        // нет ни q, ни author
+        searchFails();
+        searchFails("q", " ");
+        // размер страницы вне допустимого
+        searchFails("q", "bramble", "size", "0");
+        searchFails("q", "bramble", "size", "101");
+        // неизвестный режим
+        searchFails("q", "bramble", "mode", "exact");
+        // по однобуквенным началам не ищем - под них попадает слишком большая доля каталога
+        searchFails("q", "b");
+        searchFails("q", "b s");
+    }
+
+    @WithMockUser(value = "spring")
+    @Test
+    public void testRebuildRequiresAdmin() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/movie/search/rebuild").with(csrf()))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(MockMvcRequestBuilders.get("/movie/search/rebuild"))
+                .andExpect(status().isForbidden());
+    }
+
+    @WithMockUser(value = "spring", roles = "ADMIN")
+    @Test
+    public void testRebuildInBackgroundAndPoll() throws Exception {
+        MvcResult accepted = mockMvc.perform(MockMvcRequestBuilders.post("/movie/search/rebuild").with(csrf()))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        String location = accepted.getResponse().getHeader(HttpHeaders.LOCATION);
+        assertEquals("/movie/search/rebuild", location);
+
+        Response response = read(accepted);
+        for (int i = 0; i < 100 && "REBUILDING".equals(response.message()); i++) {
+            Thread.sleep(50);
+            response = read(mockMvc.perform(MockMvcRequestBuilders.get(location))
+                    .andExpect(status().isOk())
+                    .andReturn());
+        }
+        assertEquals("REBUILT", response.message());
+    }
+
+    private JsonNode search(String... params) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(withParams(params))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+    }
+
+    /**
+     * Некорректные параметры обрабатываются как остальные ошибки клиента - ответом 409.
+     */
+    private void searchFails(String... params) throws Exception {
+        mockMvc.perform(withParams(params)).andExpect(status().isConflict());
+    }
+
+    private static MockHttpServletRequestBuilder withParams(String... params) {
+        final MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/movie/search");
+        for (int i = 0; i < params.length; i += 2) {
+            request.param(params[i], params[i + 1]);
+        }
+        return request;
+    }
+
+    private Response read(MvcResult result) throws Exception {
+        return objectMapper.readValue(result.getResponse().getContentAsString(), Response.class);
+    }
+}